@@ -3,9 +3,11 @@ package com.example.System;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.example.System.mapper")
+@EnableScheduling
 public class SystemApplication {
 
     public static void main(String[] args) {
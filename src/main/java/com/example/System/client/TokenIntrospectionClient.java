@@ -0,0 +1,193 @@
+package com.example.System.client;
+
+import com.example.System.dto.TokenIntrospection;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 令牌内省客户端
+ * 供其他内部服务嵌入使用，通过/auth/introspect验证用户令牌，取代复制JwtUtil和直接查询RBAC表。
+ * 结果以令牌的SHA-256摘要为键缓存在本地：有效令牌的存活时间不超过ttl和令牌自身的过期时间，
+ * 无效令牌缓存negativeTtl。同一令牌并发查询时只请求一次。线程安全，每个服务保留一个实例即可。
+ */
+public class TokenIntrospectionClient {
+
+    private static final String INTROSPECT_PATH = "/auth/introspect";
+
+    private static final int SUCCESS_CODE = 200;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final URI endpoint;
+
+    private final Supplier<String> serviceToken;
+
+    private final Duration requestTimeout;
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Cache<String, TokenIntrospection> cache;
+
+    /**
+     * 使用默认配置：有效结果缓存30秒，无效结果缓存5秒，最多缓存10000个令牌，请求超时3秒
+     *
+     * @param baseUrl      认证服务地址，如http://auth-service:8080
+     * @param serviceToken 调用方自身的管理员令牌
+     */
+    public TokenIntrospectionClient(String baseUrl, String serviceToken) {
+        this(baseUrl, () -> serviceToken, Duration.ofSeconds(30), Duration.ofSeconds(5), 10000, Duration.ofSeconds(3));
+    }
+
+    /**
+     * @param baseUrl        认证服务地址
+     * @param serviceToken   每次请求时获取调用方自身的令牌，便于调用方自行续期
+     * @param ttl            有效结果的最大缓存时间，决定角色和权限变更在本地生效的最大延迟
+     * @param negativeTtl    无效结果的缓存时间
+     * @param maxSize        最多缓存的令牌数
+     * @param requestTimeout 单次请求超时
+     */
+    public TokenIntrospectionClient(String baseUrl, Supplier<String> serviceToken, Duration ttl, Duration negativeTtl,
+                                    long maxSize, Duration requestTimeout) {
+        this.endpoint = URI.create(baseUrl.replaceAll("/+$", "") + INTROSPECT_PATH);
+        this.serviceToken = serviceToken;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+        long ttlNanos = ttl.toNanos();
+        long negativeTtlNanos = negativeTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, TokenIntrospection>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenIntrospection value, long currentTime) {
+                        if (!Boolean.TRUE.equals(value.getActive())) {
+                            return negativeTtlNanos;
+                        }
+                        if (value.getExpiresAt() == null) {
+                            return ttlNanos;
+                        }
+                        long remaining = value.getExpiresAt() - System.currentTimeMillis();
+                        return Math.min(ttlNanos, Duration.ofMillis(Math.max(remaining, 0L)).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenIntrospection value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenIntrospection value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 查询令牌的身份、角色和权限，命中本地缓存时不发起请求
+     * 认证服务不可用或拒绝调用方时抛出IllegalStateException，失败不会被缓存
+     */
+    public TokenIntrospection introspect(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenIntrospection.inactive();
+        }
+        return cache.get(digest(token), key -> fetch(token));
+    }
+
+    /**
+     * 令牌有效且拥有指定权限
+     */
+    public boolean hasPermission(String token, String permissionCode) {
+        TokenIntrospection introspection = introspect(token);
+        return Boolean.TRUE.equals(introspection.getActive()) && introspection.getPermissions().contains(permissionCode);
+    }
+
+    /**
+     * 令牌有效且拥有指定角色（含继承的角色）
+     */
+    public boolean hasRole(String token, String roleCode) {
+        TokenIntrospection introspection = introspect(token);
+        return Boolean.TRUE.equals(introspection.getActive()) && introspection.getRoles().contains(roleCode);
+    }
+
+    /**
+     * 移除指定令牌的本地缓存，如用户登出后
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private TokenIntrospection fetch(String token) {
+        HttpResponse<String> response;
+        try {
+            String body = objectMapper.writeValueAsString(Map.of("token", token));
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + serviceToken.get())
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("令牌内省请求失败: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("令牌内省请求被中断", e);
+        }
+        try {
+            JsonNode result = objectMapper.readTree(response.body());
+            if (response.statusCode() != SUCCESS_CODE || result.path("code").asInt() != SUCCESS_CODE) {
+                throw new IllegalStateException("令牌内省被拒绝: status=" + response.statusCode()
+                        + ", message=" + result.path("message").asText());
+            }
+            return objectMapper.treeToValue(result.get("data"), TokenIntrospection.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("令牌内省响应无法解析: status=" + response.statusCode(), e);
+        }
+    }
+
+    private static String digest(String token) {
+        MessageDigest messageDigest = SHA256.get();
+        messageDigest.reset();
+        byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
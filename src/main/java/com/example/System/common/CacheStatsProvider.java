@@ -0,0 +1,20 @@
+package com.example.System.common;
+
+import java.util.Map;
+
+/**
+ * 缓存统计信息提供者
+ * 各本地缓存实现此接口后，统一通过监控接口暴露命中率等指标
+ */
+public interface CacheStatsProvider {
+
+    /**
+     * 缓存名称
+     */
+    String getCacheName();
+
+    /**
+     * 缓存统计信息
+     */
+    Map<String, Object> getCacheStats();
+}
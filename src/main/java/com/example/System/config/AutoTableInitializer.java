@@ -137,6 +137,7 @@ public class AutoTableInitializer {
                     "`role_name` varchar(50) NOT NULL COMMENT '角色名称'," +
                     "`role_code` varchar(50) NOT NULL COMMENT '角色代码'," +
                     "`description` varchar(255) DEFAULT NULL COMMENT '角色描述'," +
+                    "`parent_id` bigint DEFAULT '0' COMMENT '父角色ID'," +
                     "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
                     "`update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'," +
                     "`deleted` tinyint DEFAULT '0' COMMENT '是否删除：0-未删除，1-已删除'," +
@@ -149,6 +150,7 @@ public class AutoTableInitializer {
                     "role_name VARCHAR(50) NOT NULL," +
                     "role_code VARCHAR(50) NOT NULL UNIQUE," +
                     "description VARCHAR(255)," +
+                    "parent_id BIGINT DEFAULT 0," +
                     "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                     "update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                     "deleted INTEGER DEFAULT 0" +
@@ -173,6 +175,7 @@ public class AutoTableInitializer {
                     "`permission_code` varchar(100) NOT NULL COMMENT '权限代码'," +
                     "`resource_type` varchar(50) DEFAULT NULL COMMENT '资源类型'," +
                     "`resource_url` varchar(255) DEFAULT NULL COMMENT '资源URL'," +
+                    "`request_method` varchar(10) DEFAULT NULL COMMENT '请求方法，为空表示不限'," +
                     "`parent_id` bigint DEFAULT '0' COMMENT '父级ID'," +
                     "`description` varchar(255) DEFAULT NULL COMMENT '权限描述'," +
                     "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
@@ -188,6 +191,7 @@ public class AutoTableInitializer {
                     "permission_code VARCHAR(100) NOT NULL UNIQUE," +
                     "resource_type VARCHAR(50)," +
                     "resource_url VARCHAR(255)," +
+                    "request_method VARCHAR(10)," +
                     "parent_id BIGINT DEFAULT 0," +
                     "description VARCHAR(255)," +
                     "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
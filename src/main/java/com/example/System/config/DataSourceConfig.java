@@ -3,11 +3,15 @@ package com.example.System.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
+import java.util.Properties;
+
 /**
  * 数据库配置类
  * 根据激活的Profile配置不同的数据源和数据库方言
@@ -39,6 +43,19 @@ public class DataSourceConfig {
         return interceptor;
     }
 
+    /**
+     * 数据库厂商标识，Mapper XML中可通过databaseId=mysql/postgresql提供方言专用的SQL
+     */
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties properties = new Properties();
+        properties.setProperty("MySQL", "mysql");
+        properties.setProperty("PostgreSQL", "postgresql");
+        VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+        provider.setProperties(properties);
+        return provider;
+    }
+
     /**
      * 检查数据库类型的工具方法
      */
@@ -67,6 +67,29 @@ public class PostgreSQLTableInitializer {
                 logger.info("用户角色关系表已存在，跳过创建");
             }
             
+            // 检查并创建RBAC变更日志表
+            if (!tableExists("rbac_change_log")) {
+                logger.info("RBAC变更日志表不存在，开始创建...");
+                createRbacChangeLogTable();
+            } else {
+                logger.info("RBAC变更日志表已存在，跳过创建");
+            }
+            
+            // 检查并创建令牌吊销表
+            if (!tableExists("token_revocation")) {
+                logger.info("令牌吊销表不存在，开始创建...");
+                createTokenRevocationTable();
+            } else {
+                logger.info("令牌吊销表已存在，跳过创建");
+            }
+            
+            // 检查并补充后续版本新增的列
+            ensureColumn("role", "parent_id", "BIGINT DEFAULT 0");
+            ensureColumn("permission", "request_method", "VARCHAR(10)");
+            if (tableExists("user")) {
+                ensureColumn("user", "token_epoch", "BIGINT DEFAULT 0");
+            }
+            
             // 初始化默认数据
             initializeDefaultData();
             
@@ -94,12 +117,22 @@ public class PostgreSQLTableInitializer {
         }
     }
 
+    private void ensureColumn(String tableName, String columnName, String definition) {
+        String sql = "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = 'public' AND table_name = ? AND column_name = ?";
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, tableName, columnName);
+        if (count == null || count == 0) {
+            logger.info("{}表缺少{}列，开始添加...", tableName, columnName);
+            jdbcTemplate.execute("ALTER TABLE \"" + tableName + "\" ADD COLUMN " + columnName + " " + definition);
+        }
+    }
+
     private void createRoleTable() {
         jdbcTemplate.execute("CREATE TABLE role (" +
                 "id BIGSERIAL PRIMARY KEY," +
                 "role_name VARCHAR(50) NOT NULL," +
                 "role_code VARCHAR(50) NOT NULL UNIQUE," +
                 "description VARCHAR(255)," +
+                "parent_id BIGINT DEFAULT 0," +
                 "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                 "update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
                 "deleted INTEGER DEFAULT 0" +
@@ -114,6 +147,7 @@ public class PostgreSQLTableInitializer {
                 "permission_code VARCHAR(100) NOT NULL UNIQUE," +
                 "resource_type VARCHAR(50)," +
                 "resource_url VARCHAR(255)," +
+                "request_method VARCHAR(10)," +
                 "parent_id BIGINT DEFAULT 0," +
                 "description VARCHAR(255)," +
                 "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
@@ -149,6 +183,28 @@ public class PostgreSQLTableInitializer {
         jdbcTemplate.execute("CREATE TRIGGER update_user_role_modtime BEFORE UPDATE ON user_role FOR EACH ROW EXECUTE FUNCTION update_modified_column();");
     }
 
+    private void createRbacChangeLogTable() {
+        jdbcTemplate.execute("CREATE TABLE rbac_change_log (" +
+                "id BIGSERIAL PRIMARY KEY," +
+                "change_type VARCHAR(32) NOT NULL," +
+                "target_ids TEXT," +
+                "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        jdbcTemplate.execute("CREATE INDEX idx_rbac_change_log_create_time ON rbac_change_log(create_time)");
+    }
+
+    private void createTokenRevocationTable() {
+        jdbcTemplate.execute("CREATE TABLE token_revocation (" +
+                "id BIGSERIAL PRIMARY KEY," +
+                "jti VARCHAR(64)," +
+                "user_id BIGINT NOT NULL," +
+                "token_epoch BIGINT," +
+                "expire_time TIMESTAMP NOT NULL," +
+                "create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                ")");
+        jdbcTemplate.execute("CREATE INDEX idx_token_revocation_expire_time ON token_revocation(expire_time)");
+    }
+
     private void initializeDefaultData() {
         try {
             // 插入默认角色
@@ -68,6 +68,7 @@ public class ResetDatabase {
                 "`role_name` varchar(50) NOT NULL COMMENT '角色名称'," +
                 "`role_code` varchar(50) NOT NULL COMMENT '角色代码'," +
                 "`description` varchar(255) DEFAULT NULL COMMENT '角色描述'," +
+                "`parent_id` bigint DEFAULT '0' COMMENT '父角色ID'," +
                 "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
                 "`update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'," +
                 "`deleted` tinyint DEFAULT '0' COMMENT '是否删除：0-未删除，1-已删除'," +
@@ -84,6 +85,7 @@ public class ResetDatabase {
                 "`permission_code` varchar(100) NOT NULL COMMENT '权限代码'," +
                 "`resource_type` varchar(50) DEFAULT NULL COMMENT '资源类型'," +
                 "`resource_url` varchar(255) DEFAULT NULL COMMENT '资源URL'," +
+                "`request_method` varchar(10) DEFAULT NULL COMMENT '请求方法，为空表示不限'," +
                 "`parent_id` bigint DEFAULT '0' COMMENT '父级ID'," +
                 "`description` varchar(255) DEFAULT NULL COMMENT '权限描述'," +
                 "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
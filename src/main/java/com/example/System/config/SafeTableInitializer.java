@@ -70,6 +70,29 @@ public class SafeTableInitializer {
                 logger.info("用户角色关系表已存在，跳过创建");
             }
             
+            // 检查并创建RBAC变更日志表
+            if (!existingTables.contains("rbac_change_log")) {
+                logger.info("RBAC变更日志表不存在，开始创建...");
+                createRbacChangeLogTable();
+            } else {
+                logger.info("RBAC变更日志表已存在，跳过创建");
+            }
+            
+            // 检查并创建令牌吊销表
+            if (!existingTables.contains("token_revocation")) {
+                logger.info("令牌吊销表不存在，开始创建...");
+                createTokenRevocationTable();
+            } else {
+                logger.info("令牌吊销表已存在，跳过创建");
+            }
+            
+            // 检查并补充后续版本新增的列
+            ensureColumn("role", "parent_id", "bigint DEFAULT '0' COMMENT '父角色ID' AFTER `description`");
+            ensureColumn("permission", "request_method", "varchar(10) DEFAULT NULL COMMENT '请求方法，为空表示不限' AFTER `resource_url`");
+            if (existingTables.contains("user")) {
+                ensureColumn("user", "token_epoch", "bigint DEFAULT '0' COMMENT '令牌纪元，推进后之前签发的令牌全部失效'");
+            }
+            
             // 初始化默认数据
             initializeDefaultData();
             
@@ -79,12 +102,23 @@ public class SafeTableInitializer {
         }
     }
 
+    private void ensureColumn(String tableName, String columnName, String definition) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?",
+                Integer.class, tableName, columnName);
+        if (count == null || count == 0) {
+            logger.info("{}表缺少{}列，开始添加...", tableName, columnName);
+            jdbcTemplate.execute("ALTER TABLE `" + tableName + "` ADD COLUMN `" + columnName + "` " + definition);
+        }
+    }
+
     private void createRoleTable() {
         jdbcTemplate.execute("CREATE TABLE `role` (" +
                 "`id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID'," +
                 "`role_name` varchar(50) NOT NULL COMMENT '角色名称'," +
                 "`role_code` varchar(50) NOT NULL COMMENT '角色代码'," +
                 "`description` varchar(255) DEFAULT NULL COMMENT '角色描述'," +
+                "`parent_id` bigint DEFAULT '0' COMMENT '父角色ID'," +
                 "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
                 "`update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'," +
                 "`deleted` tinyint DEFAULT '0' COMMENT '是否删除：0-未删除，1-已删除'," +
@@ -100,6 +134,7 @@ public class SafeTableInitializer {
                 "`permission_code` varchar(100) NOT NULL COMMENT '权限代码'," +
                 "`resource_type` varchar(50) DEFAULT NULL COMMENT '资源类型'," +
                 "`resource_url` varchar(255) DEFAULT NULL COMMENT '资源URL'," +
+                "`request_method` varchar(10) DEFAULT NULL COMMENT '请求方法，为空表示不限'," +
                 "`parent_id` bigint DEFAULT '0' COMMENT '父级ID'," +
                 "`description` varchar(255) DEFAULT NULL COMMENT '权限描述'," +
                 "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
@@ -136,6 +171,30 @@ public class SafeTableInitializer {
                 ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户角色关系表'");
     }
 
+    private void createRbacChangeLogTable() {
+        jdbcTemplate.execute("CREATE TABLE `rbac_change_log` (" +
+                "`id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID（RBAC版本号）'," +
+                "`change_type` varchar(32) NOT NULL COMMENT '变更类型'," +
+                "`target_ids` text COMMENT '受影响的ID（逗号分隔）'," +
+                "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
+                "PRIMARY KEY (`id`)," +
+                "KEY `idx_create_time` (`create_time`)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='RBAC变更日志表'");
+    }
+
+    private void createTokenRevocationTable() {
+        jdbcTemplate.execute("CREATE TABLE `token_revocation` (" +
+                "`id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID'," +
+                "`jti` varchar(64) DEFAULT NULL COMMENT '被吊销令牌的ID'," +
+                "`user_id` bigint NOT NULL COMMENT '用户ID'," +
+                "`token_epoch` bigint DEFAULT NULL COMMENT '推进后的令牌纪元'," +
+                "`expire_time` datetime NOT NULL COMMENT '记录失效时间，之后受影响的令牌均已过期'," +
+                "`create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间'," +
+                "PRIMARY KEY (`id`)," +
+                "KEY `idx_expire_time` (`expire_time`)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='令牌吊销表'");
+    }
+
     private void initializeDefaultData() {
         try {
             // 插入默认角色
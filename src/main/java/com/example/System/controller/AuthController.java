@@ -1,10 +1,19 @@
 package com.example.System.controller;
 
+import com.example.System.annotation.RequirePermission;
 import com.example.System.common.Result;
 import com.example.System.dto.LoginRequest;
 import com.example.System.dto.LoginResponse;
+import com.example.System.dto.TokenIntrospection;
+import com.example.System.dto.TokenIntrospectionRequest;
+import com.example.System.dto.TokenRevocationRequest;
 import com.example.System.entity.User;
 import com.example.System.exception.BusinessException;
+import com.example.System.security.TokenContext;
+import com.example.System.security.VerifiedToken;
+import com.example.System.security.VerifiedTokenCache;
+import com.example.System.service.TokenIntrospectionService;
+import com.example.System.service.TokenRevocationService;
 import com.example.System.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,6 +34,15 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Operation(summary = "用户登录", description = "根据用户名和密码进行身份验证，成功后返回JWT令牌")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "登录成功", content = @Content(schema = @Schema(implementation = Result.class))),
@@ -71,4 +89,56 @@ public class AuthController {
             throw BusinessException.userNotFound();
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "令牌内省",
+            description = "供其他内部服务验证用户令牌，返回身份、有效角色和权限代码，令牌无效或已过期时active为false。"
+                    + "调用方使用自身的管理员令牌认证，可通过com.example.System.client.TokenIntrospectionClient调用并在本地缓存结果",
+            security = @SecurityRequirement(name = "JWT"))
+    @RequirePermission(roles = {"admin"})
+    @PostMapping("/introspect")
+    public Result<TokenIntrospection> introspect(@RequestBody TokenIntrospectionRequest request) {
+        if (request.getToken() == null || request.getToken().isBlank()) {
+            throw BusinessException.paramMissing();
+        }
+        return Result.success(tokenIntrospectionService.introspect(request.getToken().trim()));
+    }
+
+    @Operation(summary = "退出登录", description = "吊销当前请求使用的令牌，各节点在同步周期内拒绝该令牌",
+            security = @SecurityRequirement(name = "JWT"))
+    @RequirePermission
+    @PostMapping("/logout")
+    public Result<String> logout() {
+        tokenRevocationService.revokeToken(TokenContext.current());
+        return Result.success("退出登录成功");
+    }
+
+    @Operation(summary = "吊销令牌", description = "吊销指定令牌，用于令牌泄露等情况；已过期的令牌无需吊销",
+            security = @SecurityRequirement(name = "JWT"))
+    @RequirePermission(roles = {"admin"})
+    @PostMapping("/revoke")
+    public Result<String> revoke(@RequestBody TokenRevocationRequest request) {
+        if (request.getToken() == null || request.getToken().isBlank()) {
+            throw BusinessException.paramMissing();
+        }
+        String token = request.getToken().trim();
+        if (token.startsWith("Bearer ")) {
+            token = token.substring("Bearer ".length());
+        }
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.verify(token);
+        } catch (Exception e) {
+            throw BusinessException.paramInvalid("令牌无效或已过期");
+        }
+        tokenRevocationService.revokeToken(verifiedToken);
+        return Result.success("令牌已吊销");
+    }
+
+    @Operation(summary = "吊销用户的全部令牌", description = "推进用户的令牌纪元，此前签发的令牌全部失效，用户需重新登录",
+            security = @SecurityRequirement(name = "JWT"))
+    @RequirePermission(roles = {"admin"})
+    @PostMapping("/revoke-user/{userId}")
+    public Result<Long> revokeUser(@Parameter(description = "用户ID", required = true) @PathVariable Long userId) {
+        return Result.success("用户令牌已全部吊销", tokenRevocationService.revokeUserTokens(userId));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.System.controller;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.common.Result;
+import com.example.System.dto.AuthorizationCheck;
+import com.example.System.dto.AuthorizationCheckResponse;
+import com.example.System.exception.BusinessException;
+import com.example.System.security.AuthorizationCheckCodec;
+import com.example.System.service.AuthorizationCheckService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/authz")
+@Tag(name = "批量鉴权", description = "供其他服务批量校验用户角色和权限")
+@RequirePermission(roles = {"admin"})
+public class AuthorizationController {
+
+    @Autowired
+    private AuthorizationCheckService authorizationCheckService;
+
+    @Value("${app.rbac.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Operation(summary = "批量鉴权",
+            description = "每条检查指定userId或token，以及角色、权限代码和ANY/ALL模式，判定与接口上的RequirePermission注解一致。"
+                    + "results按请求顺序每条一个字符：0拒绝，1通过，2令牌无效")
+    @PostMapping(value = "/check", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Result<AuthorizationCheckResponse> check(@RequestBody List<AuthorizationCheck> checks) {
+        if (checks == null) {
+            throw BusinessException.paramMissing();
+        }
+        if (checks.size() > maxBatchSize) {
+            throw BusinessException.paramInvalid("单次最多检查" + maxBatchSize + "条");
+        }
+        normalize(checks);
+        return Result.success(AuthorizationCheckResponse.of(authorizationCheckService.check(checks)));
+    }
+
+    @Operation(summary = "批量鉴权（二进制）", description = "请求和响应的编码见AuthorizationCheckCodec，判定结果与JSON接口相同")
+    @PostMapping(value = "/check", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public byte[] checkBinary(@RequestBody byte[] body) {
+        List<AuthorizationCheck> checks = AuthorizationCheckCodec.decode(body, maxBatchSize);
+        normalize(checks);
+        return AuthorizationCheckCodec.encodeResults(authorizationCheckService.check(checks));
+    }
+
+    /**
+     * 校验每条检查恰好指定了userId或token之一，缺省的列表和模式按注解的默认值处理
+     */
+    private void normalize(List<AuthorizationCheck> checks) {
+        for (int i = 0; i < checks.size(); i++) {
+            AuthorizationCheck check = checks.get(i);
+            if (check == null || (check.getUserId() == null) == (check.getToken() == null)) {
+                throw BusinessException.paramInvalid("第" + (i + 1) + "条检查必须指定userId或token之一");
+            }
+            if (check.getRoles() == null) {
+                check.setRoles(List.of());
+            }
+            if (check.getPermissions() == null) {
+                check.setPermissions(List.of());
+            }
+            if (check.getLogical() == null) {
+                check.setLogical(RequirePermission.Logical.ANY);
+            }
+            if (check.getRoles().contains(null) || check.getPermissions().contains(null)) {
+                throw BusinessException.paramInvalid("第" + (i + 1) + "条检查的角色或权限代码不能为空");
+            }
+        }
+    }
+}
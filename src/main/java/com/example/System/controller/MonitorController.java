@@ -0,0 +1,35 @@
+package com.example.System.controller;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.common.CacheStatsProvider;
+import com.example.System.common.Result;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/monitor")
+@Tag(name = "系统监控", description = "缓存命中率等运行指标")
+@RequirePermission(roles = {"admin"})
+public class MonitorController {
+
+    @Autowired
+    private List<CacheStatsProvider> cacheStatsProviders;
+
+    @Operation(summary = "获取本地缓存统计")
+    @GetMapping("/cache-stats")
+    public Result<Map<String, Map<String, Object>>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (CacheStatsProvider provider : cacheStatsProviders) {
+            stats.put(provider.getCacheName(), provider.getCacheStats());
+        }
+        return Result.success(stats);
+    }
+}
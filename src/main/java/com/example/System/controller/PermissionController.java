@@ -2,13 +2,22 @@ package com.example.System.controller;
 
 import com.example.System.annotation.RequirePermission;
 import com.example.System.common.Result;
+import com.example.System.dto.MenuNode;
 import com.example.System.entity.Permission;
 import com.example.System.exception.BusinessException;
+import com.example.System.rbac.MenuTree;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.security.TokenContext;
 import com.example.System.service.PermissionService;
+import com.example.System.service.RbacVersionService;
+import com.example.System.service.UserGrantsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,17 +30,39 @@ public class PermissionController {
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Autowired
+    private UserGrantsService userGrantsService;
+
     @Operation(summary = "获取所有权限")
     @GetMapping("/list")
     public Result<List<Permission>> getAllPermissions() {
         return Result.success(permissionService.list());
     }
 
+    @Operation(summary = "获取当前用户的菜单树",
+            description = "按parent_id组织的权限树，只包含当前用户拥有的权限及其上级节点；支持If-None-Match，未变化时返回304")
+    @GetMapping("/menu-tree")
+    @RequirePermission
+    public Result<List<MenuNode>> getMenuTree(WebRequest webRequest, HttpServletResponse response) {
+        long[] permissionBits = userGrantsService.getUserGrants(TokenContext.currentUserId()).getPermissionBits();
+        MenuTree menuTree = permissionService.getMenuTree();
+        // 菜单因用户而异，只允许客户端私有缓存，每次使用前需携带ETag重新验证
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (webRequest.checkNotModified(menuTree.etag(permissionBits))) {
+            return null;
+        }
+        return Result.success(menuTree.filter(permissionBits));
+    }
+
     @Operation(summary = "创建权限")
     @PostMapping("/create")
     public Result<String> createPermission(@RequestBody Permission permission) {
         boolean success = permissionService.save(permission);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.PERMISSION, permission.getId());
             return Result.success("权限创建成功");
         } else {
             throw BusinessException.dataSaveFailed();
@@ -49,6 +80,7 @@ public class PermissionController {
         permission.setId(id);
         boolean success = permissionService.updateById(permission);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.PERMISSION, id);
             return Result.success("权限更新成功");
         } else {
             throw BusinessException.dataUpdateFailed();
@@ -65,6 +97,7 @@ public class PermissionController {
         
         boolean success = permissionService.removeById(id);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.PERMISSION, id);
             return Result.success("权限删除成功");
         } else {
             throw BusinessException.dataDeleteFailed();
@@ -0,0 +1,42 @@
+package com.example.System.controller;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.common.Result;
+import com.example.System.dto.RbacChangesResponse;
+import com.example.System.exception.BusinessException;
+import com.example.System.service.RbacChangeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/rbac")
+@Tag(name = "RBAC同步", description = "RBAC数据增量同步相关接口")
+@RequirePermission(roles = {"admin"})
+public class RbacController {
+
+    @Autowired
+    private RbacChangeService rbacChangeService;
+
+    @Value("${app.rbac.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Operation(summary = "获取增量变更",
+            description = "返回sinceVersion之后变更的角色、权限、用户角色和角色权限（含已删除记录）。"
+                    + "fullResync为true时应先记录返回的version，再通过/role/list等接口全量拉取")
+    @GetMapping("/changes")
+    public Result<RbacChangesResponse> getChanges(
+            @Parameter(description = "客户端已同步到的版本号，首次同步传0") @RequestParam long sinceVersion,
+            @Parameter(description = "单次最多处理的变更日志条数") @RequestParam(defaultValue = "500") int limit) {
+        if (sinceVersion < 0) {
+            throw BusinessException.paramInvalid("sinceVersion不能为负数");
+        }
+        if (limit <= 0 || limit > maxBatchSize) {
+            throw BusinessException.paramInvalid("limit必须在1到" + maxBatchSize + "之间");
+        }
+        return Result.success(rbacChangeService.getChangesSince(sinceVersion, limit));
+    }
+}
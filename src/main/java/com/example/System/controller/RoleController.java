@@ -2,12 +2,19 @@ package com.example.System.controller;
 
 import com.example.System.annotation.RequirePermission;
 import com.example.System.common.Result;
+import com.example.System.entity.Permission;
 import com.example.System.entity.Role;
 import com.example.System.exception.BusinessException;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.service.PermissionService;
+import com.example.System.service.RbacVersionService;
+import com.example.System.service.RolePermissionService;
 import com.example.System.service.RoleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,6 +28,21 @@ public class RoleController {
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Autowired
+    private RolePermissionService rolePermissionService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Value("${app.rbac.batch.max-size:10000}")
+    private int maxBatchSize;
+
     @Operation(summary = "获取所有角色")
     @GetMapping("/list")
     public Result<List<Role>> getAllRoles() {
@@ -30,8 +52,10 @@ public class RoleController {
     @Operation(summary = "创建角色")
     @PostMapping("/create")
     public Result<String> createRole(@RequestBody Role role) {
+        checkParentRole(null, role.getParentId());
         boolean success = roleService.save(role);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.ROLE, role.getId());
             return Result.success("角色创建成功");
         } else {
             throw BusinessException.dataSaveFailed();
@@ -46,9 +70,11 @@ public class RoleController {
             throw BusinessException.roleNotFound();
         }
         
+        checkParentRole(id, role.getParentId());
         role.setId(id);
         boolean success = roleService.updateById(role);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.ROLE, id);
             return Result.success("角色更新成功");
         } else {
             throw BusinessException.dataUpdateFailed();
@@ -65,9 +91,61 @@ public class RoleController {
         
         boolean success = roleService.removeById(id);
         if (success) {
+            rbacVersionService.publishChange(RbacChangeType.ROLE, id);
             return Result.success("角色删除成功");
         } else {
             throw BusinessException.dataDeleteFailed();
         }
     }
+
+    @Operation(summary = "获取角色直接授予的权限")
+    @GetMapping("/{id}/permissions")
+    public Result<List<Permission>> getRolePermissions(@PathVariable Long id) {
+        return Result.success(permissionService.getPermissionsByRoleId(id));
+    }
+
+    @Operation(summary = "为角色授予权限", description = "请求体为权限ID数组，已授予的权限保持不变，返回新增的权限数")
+    @PostMapping("/{id}/permissions/grant")
+    public Result<Integer> grantPermissions(@PathVariable Long id, @RequestBody List<Long> permissionIds) {
+        checkPermissionIds(permissionIds, false);
+        return Result.success("权限授予成功", rolePermissionService.grantPermissions(id, permissionIds));
+    }
+
+    @Operation(summary = "撤销角色的权限", description = "请求体为权限ID数组，返回实际撤销的权限数")
+    @PostMapping("/{id}/permissions/revoke")
+    public Result<Integer> revokePermissions(@PathVariable Long id, @RequestBody List<Long> permissionIds) {
+        checkPermissionIds(permissionIds, false);
+        return Result.success("权限撤销成功", rolePermissionService.revokePermissions(id, permissionIds));
+    }
+
+    @Operation(summary = "设置角色的权限", description = "请求体为权限ID数组，角色的权限替换为该集合，空数组表示撤销全部权限")
+    @PutMapping("/{id}/permissions")
+    public Result<Integer> replacePermissions(@PathVariable Long id, @RequestBody List<Long> permissionIds) {
+        checkPermissionIds(permissionIds, true);
+        return Result.success("权限设置成功", rolePermissionService.replacePermissions(id, permissionIds));
+    }
+
+    private void checkPermissionIds(List<Long> permissionIds, boolean allowEmpty) {
+        if (permissionIds == null || (!allowEmpty && permissionIds.isEmpty()) || permissionIds.contains(null)) {
+            throw BusinessException.paramMissing();
+        }
+        if (permissionIds.size() > maxBatchSize) {
+            throw BusinessException.paramInvalid("单次最多处理" + maxBatchSize + "个权限");
+        }
+    }
+
+    /**
+     * 校验父角色存在且不会形成继承环
+     */
+    private void checkParentRole(Long roleId, Long parentId) {
+        if (parentId == null || parentId == 0L) {
+            return;
+        }
+        if (roleService.getById(parentId) == null) {
+            throw BusinessException.roleNotFound();
+        }
+        if (roleId != null && rbacSnapshotManager.getSnapshot().wouldCreateInheritanceCycle(roleId, parentId)) {
+            throw BusinessException.paramInvalid("角色继承关系不能成环");
+        }
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.example.System.annotation.RequirePermission;
 import com.example.System.common.Result;
 import com.example.System.entity.User;
 import com.example.System.exception.BusinessException;
+import com.example.System.service.TokenRevocationService;
 import com.example.System.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,6 +22,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Operation(summary = "获取用户列表")
     @GetMapping("/list")
     @RequirePermission(value = {"user:view"})
@@ -83,6 +87,8 @@ public class UserController {
             throw BusinessException.userNotFound();
         }
         
+        // 先吊销该用户已签发的令牌，删除后无法再用旧令牌访问
+        tokenRevocationService.revokeUserTokens(id);
         boolean success = userService.removeById(id);
         if (success) {
             return Result.success("用户删除成功");
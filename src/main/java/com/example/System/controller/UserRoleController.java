@@ -1,9 +1,12 @@
 package com.example.System.controller;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.System.annotation.RequirePermission;
 import com.example.System.common.Result;
 import com.example.System.entity.Permission;
 import com.example.System.entity.Role;
+import com.example.System.entity.User;
+import com.example.System.entity.UserRole;
 import com.example.System.exception.BusinessException;
 import com.example.System.service.PermissionService;
 import com.example.System.service.RoleService;
@@ -12,9 +15,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/user-role")
@@ -22,6 +29,11 @@ import java.util.List;
 @RequirePermission(roles = {"admin"})
 public class UserRoleController {
 
+    /**
+     * 分页查询每页的最大数量
+     */
+    private static final long MAX_PAGE_SIZE = 500;
+
     @Autowired
     private UserRoleService userRoleService;
 
@@ -31,6 +43,9 @@ public class UserRoleController {
     @Autowired
     private PermissionService permissionService;
 
+    @Value("${app.rbac.batch.max-size:10000}")
+    private int maxBatchSize;
+
     @Operation(summary = "获取用户的角色")
     @GetMapping("/user/{userId}/roles")
     public Result<List<Role>> getUserRoles(@Parameter(description = "用户ID") @PathVariable Long userId) {
@@ -45,17 +60,48 @@ public class UserRoleController {
         return Result.success(permissions);
     }
 
+    @Operation(summary = "批量获取用户的角色", description = "请求体为用户ID数组，返回用户ID到角色列表的映射")
+    @PostMapping("/users/roles")
+    public Result<Map<Long, List<Role>>> getUsersRoles(@RequestBody List<Long> userIds) {
+        checkBatchSize(userIds);
+        return Result.success(roleService.getRolesByUserIds(userIds));
+    }
+
+    @Operation(summary = "批量获取用户的权限", description = "请求体为用户ID数组，返回用户ID到权限列表的映射")
+    @PostMapping("/users/permissions")
+    public Result<Map<Long, List<Permission>>> getUsersPermissions(@RequestBody List<Long> userIds) {
+        checkBatchSize(userIds);
+        return Result.success(permissionService.getPermissionsByUserIds(userIds));
+    }
+
+    @Operation(summary = "分页查询拥有角色的用户", description = "按用户ID升序，includeInherited为true时包含通过子角色继承该角色的用户")
+    @GetMapping("/role/{roleId}/users")
+    public Result<Page<User>> getRoleUsers(
+            @Parameter(description = "角色ID") @PathVariable Long roleId,
+            @Parameter(description = "是否包含继承该角色的用户") @RequestParam(defaultValue = "false") boolean includeInherited,
+            @Parameter(description = "页码，从1开始") @RequestParam(defaultValue = "1") long current,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") long size) {
+        checkPage(current, size);
+        return Result.success(userRoleService.getUsersByRole(roleId, includeInherited, current, size));
+    }
+
+    @Operation(summary = "分页查询拥有权限的用户", description = "按用户ID升序，已计入角色继承和权限蕴含")
+    @GetMapping("/permission/{permissionId}/users")
+    public Result<Page<User>> getPermissionUsers(
+            @Parameter(description = "权限ID") @PathVariable Long permissionId,
+            @Parameter(description = "页码，从1开始") @RequestParam(defaultValue = "1") long current,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "20") long size) {
+        checkPage(current, size);
+        return Result.success(userRoleService.getUsersByPermission(permissionId, current, size));
+    }
+
     @Operation(summary = "为用户分配角色")
     @PostMapping("/assign")
     public Result<String> assignRole(
             @Parameter(description = "用户ID") @RequestParam Long userId,
             @Parameter(description = "角色ID") @RequestParam Long roleId) {
-        boolean success = userRoleService.assignUserRole(userId, roleId);
-        if (success) {
-            return Result.success("角色分配成功");
-        } else {
-            throw BusinessException.dataSaveFailed();
-        }
+        userRoleService.assignUserRole(userId, roleId);
+        return Result.success("角色分配成功");
     }
 
     @Operation(summary = "取消用户角色")
@@ -70,4 +116,55 @@ public class UserRoleController {
             throw BusinessException.dataDeleteFailed();
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "批量为用户分配角色", description = "请求体为[{userId, roleId}]数组，已分配的关系保持不变")
+    @PostMapping("/batch/assign")
+    public Result<Integer> batchAssignRoles(@RequestBody List<UserRole> userRoles) {
+        checkUserRoles(userRoles);
+        return Result.success("批量分配成功", userRoleService.assignUserRoles(userRoles));
+    }
+
+    @Operation(summary = "批量取消用户角色", description = "请求体为[{userId, roleId}]数组，返回实际取消的关系数")
+    @PostMapping("/batch/remove")
+    public Result<Integer> batchRemoveRoles(@RequestBody List<UserRole> userRoles) {
+        checkUserRoles(userRoles);
+        return Result.success("批量取消成功", userRoleService.removeUserRoles(userRoles));
+    }
+
+    /**
+     * 校验批量用户角色关系：数量、必填字段及角色是否存在
+     */
+    private void checkUserRoles(List<UserRole> userRoles) {
+        if (userRoles == null || userRoles.isEmpty()) {
+            throw BusinessException.paramMissing();
+        }
+        if (userRoles.size() > maxBatchSize) {
+            throw BusinessException.paramInvalid("单次最多处理" + maxBatchSize + "条关系");
+        }
+        Set<Long> roleIds = new HashSet<>();
+        for (UserRole userRole : userRoles) {
+            if (userRole == null || userRole.getUserId() == null || userRole.getRoleId() == null) {
+                throw BusinessException.paramMissing();
+            }
+            roleIds.add(userRole.getRoleId());
+        }
+        if (roleService.listByIds(roleIds).size() != roleIds.size()) {
+            throw BusinessException.roleNotFound();
+        }
+    }
+
+    private void checkBatchSize(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw BusinessException.paramMissing();
+        }
+        if (userIds.size() > maxBatchSize) {
+            throw BusinessException.paramInvalid("单次最多查询" + maxBatchSize + "个用户");
+        }
+    }
+
+    private void checkPage(long current, long size) {
+        if (current < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw BusinessException.paramInvalid("页码需大于0，每页数量需在1到" + MAX_PAGE_SIZE + "之间");
+        }
+    }
+}
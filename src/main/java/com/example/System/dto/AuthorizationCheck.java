@@ -0,0 +1,28 @@
+package com.example.System.dto;
+
+import com.example.System.annotation.RequirePermission;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "单条鉴权检查，userId与token二选一，角色和权限的判定与RequirePermission注解相同")
+public class AuthorizationCheck {
+
+    @Schema(description = "用户ID", example = "1")
+    private Long userId;
+
+    @Schema(description = "用户的JWT令牌，不含Bearer前缀")
+    private String token;
+
+    @Schema(description = "需要的角色代码，拥有任一即可", example = "[\"admin\"]")
+    private List<String> roles = new ArrayList<>();
+
+    @Schema(description = "需要的权限代码", example = "[\"user:view\"]")
+    private List<String> permissions = new ArrayList<>();
+
+    @Schema(description = "权限验证模式：ANY满足任一，ALL需要全部", example = "ANY")
+    private RequirePermission.Logical logical = RequirePermission.Logical.ANY;
+}
@@ -0,0 +1,41 @@
+package com.example.System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "批量鉴权结果")
+public class AuthorizationCheckResponse {
+
+    /**
+     * 判定结果：拒绝
+     */
+    public static final byte DENIED = 0;
+
+    /**
+     * 判定结果：通过
+     */
+    public static final byte ALLOWED = 1;
+
+    /**
+     * 判定结果：令牌无效或已过期
+     */
+    public static final byte UNAUTHENTICATED = 2;
+
+    @Schema(description = "检查条数", example = "3")
+    private Integer count;
+
+    @Schema(description = "按请求顺序每条一个字符：0拒绝，1通过，2令牌无效", example = "102")
+    private String results;
+
+    public static AuthorizationCheckResponse of(byte[] decisions) {
+        char[] chars = new char[decisions.length];
+        for (int i = 0; i < decisions.length; i++) {
+            chars[i] = (char) ('0' + decisions[i]);
+        }
+        AuthorizationCheckResponse response = new AuthorizationCheckResponse();
+        response.setCount(decisions.length);
+        response.setResults(new String(chars));
+        return response;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "菜单树节点")
+public class MenuNode {
+
+    @Schema(description = "权限ID", example = "5")
+    private Long id;
+
+    @Schema(description = "父级ID，根节点为0", example = "0")
+    private Long parentId;
+
+    @Schema(description = "权限名称", example = "角色查看")
+    private String permissionName;
+
+    @Schema(description = "权限代码", example = "role:view")
+    private String permissionCode;
+
+    @Schema(description = "资源类型", example = "menu")
+    private String resourceType;
+
+    @Schema(description = "资源URL", example = "/role/list")
+    private String resourceUrl;
+
+    @Schema(description = "当前用户是否拥有该权限，为false时仅作为已授权子节点的上级显示", example = "true")
+    private Boolean granted;
+
+    @Schema(description = "子节点，按ID升序")
+    private List<MenuNode> children = new ArrayList<>();
+}
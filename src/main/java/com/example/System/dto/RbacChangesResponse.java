@@ -0,0 +1,58 @@
+package com.example.System.dto;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import com.example.System.entity.UserRole;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(description = "RBAC增量变更响应")
+public class RbacChangesResponse {
+
+    @Schema(description = "客户端传入的版本号", example = "120")
+    private Long sinceVersion;
+
+    @Schema(description = "本次结果对应的版本号，下次请求作为sinceVersion传入；sinceVersion超前于本节点时为本节点的版本号，本节点同步尚未就绪时与sinceVersion相同", example = "135")
+    private Long version;
+
+    @Schema(description = "是否需要全量同步：变更日志已清理或未启用集群同步时为true，客户端应重新拉取全量数据", example = "false")
+    private Boolean fullResync;
+
+    @Schema(description = "是否还有更多变更，为true时应以version继续拉取", example = "false")
+    private Boolean hasMore;
+
+    @Schema(description = "变更的角色，deleted=1为已删除")
+    private List<Role> roles = new ArrayList<>();
+
+    @Schema(description = "变更的权限，deleted=1为已删除")
+    private List<Permission> permissions = new ArrayList<>();
+
+    @Schema(description = "发生变更的用户的全部角色关系，deleted=1为已取消")
+    private List<UserRole> userRoles = new ArrayList<>();
+
+    @Schema(description = "发生变更的角色的全部权限关系，deleted=1为已撤销")
+    private List<RolePermission> rolePermissions = new ArrayList<>();
+
+    public static RbacChangesResponse empty(long sinceVersion, long version) {
+        RbacChangesResponse response = new RbacChangesResponse();
+        response.setSinceVersion(sinceVersion);
+        response.setVersion(version);
+        response.setFullResync(false);
+        response.setHasMore(false);
+        return response;
+    }
+
+    public static RbacChangesResponse fullResync(long sinceVersion, long version) {
+        RbacChangesResponse response = new RbacChangesResponse();
+        response.setSinceVersion(sinceVersion);
+        response.setVersion(version);
+        response.setFullResync(true);
+        response.setHasMore(false);
+        return response;
+    }
+}
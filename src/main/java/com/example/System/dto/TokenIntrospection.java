@@ -0,0 +1,41 @@
+package com.example.System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "令牌内省结果")
+public class TokenIntrospection {
+
+    @Schema(description = "令牌是否有效，无效时其余字段为空", example = "true")
+    private Boolean active;
+
+    @Schema(description = "用户ID", example = "1")
+    private Long userId;
+
+    @Schema(description = "用户名", example = "admin")
+    private String username;
+
+    @Schema(description = "用户角色（用户表中的role字段）", example = "ADMIN")
+    private String role;
+
+    @Schema(description = "有效角色代码（含继承的角色）", example = "[\"admin\"]")
+    private List<String> roles;
+
+    @Schema(description = "有效权限代码", example = "[\"user:view\",\"role:view\"]")
+    private List<String> permissions;
+
+    @Schema(description = "令牌过期时间（毫秒时间戳）", example = "1760000000000")
+    private Long expiresAt;
+
+    @Schema(description = "判定时使用的RBAC快照版本号", example = "12")
+    private Long rbacVersion;
+
+    public static TokenIntrospection inactive() {
+        TokenIntrospection introspection = new TokenIntrospection();
+        introspection.setActive(false);
+        return introspection;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "令牌内省请求")
+public class TokenIntrospectionRequest {
+
+    @Schema(description = "待检查的JWT令牌，可带Bearer前缀", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String token;
+}
@@ -0,0 +1,12 @@
+package com.example.System.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "令牌吊销请求")
+public class TokenRevocationRequest {
+
+    @Schema(description = "待吊销的JWT令牌，可带Bearer前缀", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String token;
+}
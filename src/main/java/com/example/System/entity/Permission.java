@@ -35,6 +35,10 @@ public class Permission {
     @Schema(description = "资源URL", example = "/user/**")
     private String resourceUrl;
 
+    @TableField("request_method")
+    @Schema(description = "请求方法，为空表示不限", example = "GET")
+    private String requestMethod;
+
     @TableField("parent_id")
     @Schema(description = "父级ID", example = "0")
     private Long parentId;
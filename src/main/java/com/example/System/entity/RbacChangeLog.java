@@ -0,0 +1,57 @@
+package com.example.System.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RBAC变更日志实体
+ * 只追加不修改，自增ID即为集群共享的RBAC版本号
+ */
+@Data
+@Accessors(chain = true)
+@TableName("rbac_change_log")
+public class RbacChangeLog {
+
+    /**
+     * 主键ID（RBAC版本号）
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 变更类型，对应RbacChangeType
+     */
+    @TableField("change_type")
+    private String changeType;
+
+    /**
+     * 受影响的ID（逗号分隔），含义由变更类型决定
+     */
+    @TableField("target_ids")
+    private String targetIds;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 解析受影响的ID列表
+     */
+    public List<Long> parseTargetIds() {
+        List<Long> ids = new ArrayList<>();
+        if (targetIds == null || targetIds.isEmpty()) {
+            return ids;
+        }
+        for (String id : targetIds.split(",")) {
+            ids.add(Long.valueOf(id.trim()));
+        }
+        return ids;
+    }
+}
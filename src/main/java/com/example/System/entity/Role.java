@@ -31,6 +31,10 @@ public class Role {
     @Schema(description = "角色描述", example = "系统管理员")
     private String description;
 
+    @TableField("parent_id")
+    @Schema(description = "父角色ID，角色继承父角色的全部权限，0表示无父角色", example = "0")
+    private Long parentId;
+
     @TableField(value = "create_time", fill = FieldFill.INSERT)
     @Schema(description = "创建时间", example = "2023-01-01T12:00:00")
     private LocalDateTime createTime;
@@ -0,0 +1,45 @@
+package com.example.System.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 令牌吊销记录
+ * 只追加不修改：jti不为空时吊销单个令牌，为空时表示该用户的令牌纪元推进到tokenEpoch，
+ * 纪元更小的令牌全部失效。过了expireTime后受影响的令牌都已自然过期，记录可以清理。
+ */
+@Data
+@Accessors(chain = true)
+@TableName("token_revocation")
+public class TokenRevocation {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 被吊销令牌的ID（jti声明）
+     */
+    @TableField("jti")
+    private String jti;
+
+    @TableField("user_id")
+    private Long userId;
+
+    /**
+     * 推进后的令牌纪元
+     */
+    @TableField("token_epoch")
+    private Long tokenEpoch;
+
+    /**
+     * 记录失效时间
+     */
+    @TableField("expire_time")
+    private LocalDateTime expireTime;
+
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
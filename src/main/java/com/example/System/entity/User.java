@@ -1,6 +1,7 @@
 package com.example.System.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -59,6 +60,11 @@ public class User {
     @TableField("deleted")
     @Schema(description = "是否删除：0-未删除，1-已删除", example = "0")
     private Integer deleted;
+
+    @JsonIgnore
+    @TableField("token_epoch")
+    @Schema(hidden = true)
+    private Long tokenEpoch;
     
     // 手动添加getter和setter方法以确保编译成功
     public Long getId() {
@@ -148,4 +154,12 @@ public class User {
     public void setDeleted(Integer deleted) {
         this.deleted = deleted;
     }
+    
+    public Long getTokenEpoch() {
+        return tokenEpoch;
+    }
+    
+    public void setTokenEpoch(Long tokenEpoch) {
+        this.tokenEpoch = tokenEpoch;
+    }
 }
\ No newline at end of file
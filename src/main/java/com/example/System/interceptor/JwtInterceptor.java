@@ -1,34 +1,47 @@
 package com.example.System.interceptor;
 
-import com.example.System.annotation.RequirePermission;
-import com.example.System.entity.Permission;
-import com.example.System.entity.Role;
-import com.example.System.service.PermissionService;
-import com.example.System.service.RoleService;
-import com.example.System.util.JwtUtil;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.UserGrants;
+import com.example.System.security.AuthorizationPlan;
+import com.example.System.security.AuthorizationPlanRegistry;
+import com.example.System.security.TokenClaimsPolicy;
+import com.example.System.security.TokenContext;
+import com.example.System.security.TokenRevocationRegistry;
+import com.example.System.security.UrlAuthorizationRegistry;
+import com.example.System.security.VerifiedToken;
+import com.example.System.security.VerifiedTokenCache;
+import com.example.System.service.UserGrantsService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserGrantsService userGrantsService;
+
+    @Autowired
+    private TokenClaimsPolicy tokenClaimsPolicy;
 
     @Autowired
-    private RoleService roleService;
+    private TokenRevocationRegistry tokenRevocationRegistry;
 
     @Autowired
-    private PermissionService permissionService;
+    private AuthorizationPlanRegistry authorizationPlanRegistry;
+
+    @Autowired
+    private UrlAuthorizationRegistry urlAuthorizationRegistry;
+
+    @Value("${app.security.url-auth.enabled:false}")
+    private boolean urlAuthEnabled;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -37,79 +50,71 @@ public class JwtInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        HandlerMethod handlerMethod = (HandlerMethod) handler;
-        Method method = handlerMethod.getMethod();
+        // 获取预编译的鉴权计划（方法或类上的RequirePermission注解）
+        AuthorizationPlan plan = authorizationPlanRegistry.getPlan((HandlerMethod) handler);
         
-        // 检查方法或类上是否有RequirePermission注解
-        RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
-        if (requirePermission == null) {
-            requirePermission = method.getDeclaringClass().getAnnotation(RequirePermission.class);
-        }
+        // 开启URL鉴权时，按请求路径和方法查找权限表中配置的资源规则
+        long[] urlPermissionBits = urlAuthEnabled ? urlAuthorizationRegistry.match(request) : null;
         
-        // 如果没有权限注解，直接通过
-        if (requirePermission == null) {
+        // 既没有权限注解也没有URL规则，直接通过
+        if (!plan.isProtected() && urlPermissionBits == null) {
             return true;
         }
         
         // 从请求头中获取token
-        String token = request.getHeader("Authorization");
-        if (token == null || !token.startsWith("Bearer ")) {
+        String token = TokenContext.resolveBearerToken(request);
+        if (token == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("{\"code\": 401, \"message\": \"未提供有效的token\"}");
             return false;
         }
         
-        token = token.substring(7); // 去掉"Bearer "前缀
-        
-        // 验证token
+        // 验证token（每个请求只解析、验签一次）
         try {
-            String username = jwtUtil.getUsernameFromToken(token);
+            VerifiedToken verifiedToken = verifiedTokenCache.verify(token);
+            String username = verifiedToken.getUsername();
             if (username == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"code\": 401, \"message\": \"token无效\"}");
                 return false;
             }
             
-            Long userId = jwtUtil.getUserIdFromToken(token);
+            // 检查令牌是否已被吊销（只读内存中的吊销副本，未加载成功时按配置拒绝）
+            if (tokenRevocationRegistry.isRevoked(verifiedToken)) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("{\"code\": 401, \"message\": \"token已失效\"}");
+                return false;
+            }
+            
+            Long userId = verifiedToken.getUserId();
+            boolean useTokenClaims = tokenClaimsPolicy.isTrusted(verifiedToken);
+            // 角色和权限位图来自同一次快照计算，只查询一次用户角色关系
+            UserGrants grants = useTokenClaims ? null : userGrantsService.getUserGrants(userId);
             
             // 检查角色权限
-            String[] requiredRoles = requirePermission.roles();
-            if (requiredRoles.length > 0) {
-                List<Role> userRoles = roleService.getRolesByUserId(userId);
-                List<String> userRoleCodes = userRoles.stream()
-                        .map(Role::getRoleCode)
-                        .collect(Collectors.toList());
-                
-                boolean hasRole = Arrays.stream(requiredRoles)
-                        .anyMatch(userRoleCodes::contains);
-                
-                if (!hasRole) {
+            if (plan.requiresRoles()) {
+                long[] roleBits = useTokenClaims ? verifiedToken.getRoleBits() : grants.getRoleBits();
+                if (!plan.matchesRoles(roleBits)) {
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                     response.getWriter().write("{\"code\": 403, \"message\": \"权限不足：缺少所需角色\"}");
                     return false;
                 }
             }
             
-            // 检查权限
-            String[] requiredPermissions = requirePermission.value();
-            if (requiredPermissions.length > 0) {
-                List<Permission> userPermissions = permissionService.getPermissionsByUserId(userId);
-                List<String> userPermissionCodes = userPermissions.stream()
-                        .map(Permission::getPermissionCode)
-                        .collect(Collectors.toList());
-                
-                boolean hasPermission;
-                if (requirePermission.logical() == RequirePermission.Logical.ALL) {
-                    // 需要满足所有权限
-                    hasPermission = Arrays.stream(requiredPermissions)
-                            .allMatch(userPermissionCodes::contains);
-                } else {
-                    // 满足任一权限即可
-                    hasPermission = Arrays.stream(requiredPermissions)
-                            .anyMatch(userPermissionCodes::contains);
+            // 检查URL规则：拥有规则对应的任一权限即可
+            if (urlPermissionBits != null) {
+                long[] permissionBits = useTokenClaims ? verifiedToken.getPermissionBits() : grants.getPermissionBits();
+                if (!PermissionBits.containsAny(permissionBits, urlPermissionBits)) {
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.getWriter().write("{\"code\": 403, \"message\": \"权限不足：无权访问该资源\"}");
+                    return false;
                 }
-                
-                if (!hasPermission) {
+            }
+            
+            // 检查权限
+            if (plan.requiresPermissions()) {
+                long[] permissionBits = useTokenClaims ? verifiedToken.getPermissionBits() : grants.getPermissionBits();
+                if (!plan.matchesPermissions(permissionBits)) {
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
                     response.getWriter().write("{\"code\": 403, \"message\": \"权限不足：缺少所需权限\"}");
                     return false;
@@ -117,6 +122,7 @@ public class JwtInterceptor implements HandlerInterceptor {
             }
             
             // 将用户信息放入请求属性中，供后续使用
+            TokenContext.set(request, verifiedToken);
             request.setAttribute("userId", userId);
             request.setAttribute("username", username);
             
@@ -127,4 +133,4 @@ public class JwtInterceptor implements HandlerInterceptor {
             return false;
         }
     }
-}
\ No newline at end of file
+}
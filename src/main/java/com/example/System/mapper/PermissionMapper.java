@@ -3,7 +3,26 @@ package com.example.System.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.System.entity.Permission;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface PermissionMapper extends BaseMapper<Permission> {
-}
\ No newline at end of file
+
+    /**
+     * 联表查询用户的有效权限
+     */
+    List<Permission> selectPermissionsByUserId(Long userId);
+
+    /**
+     * 联表查询角色的权限
+     */
+    List<Permission> selectPermissionsByRoleId(Long roleId);
+
+    /**
+     * 按ID查询权限，包含已逻辑删除的记录
+     */
+    List<Permission> selectByIdsWithDeleted(@Param("ids") Collection<Long> ids);
+}
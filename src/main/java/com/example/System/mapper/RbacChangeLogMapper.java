@@ -0,0 +1,25 @@
+package com.example.System.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.System.entity.RbacChangeLog;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * RBAC变更日志Mapper
+ */
+@Mapper
+public interface RbacChangeLogMapper extends BaseMapper<RbacChangeLog> {
+
+    /**
+     * 当前最大的变更ID，没有记录时返回null
+     */
+    @Select("SELECT MAX(id) FROM rbac_change_log")
+    Long selectMaxId();
+
+    /**
+     * 仍保留的最小变更ID，没有记录时返回null
+     */
+    @Select("SELECT MIN(id) FROM rbac_change_log")
+    Long selectMinId();
+}
@@ -3,7 +3,21 @@ package com.example.System.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.System.entity.Role;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface RoleMapper extends BaseMapper<Role> {
-}
\ No newline at end of file
+
+    /**
+     * 联表查询用户的有效角色
+     */
+    List<Role> selectRolesByUserId(Long userId);
+
+    /**
+     * 按ID查询角色，包含已逻辑删除的记录
+     */
+    List<Role> selectByIdsWithDeleted(@Param("ids") Collection<Long> ids);
+}
@@ -3,7 +3,26 @@ package com.example.System.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.System.entity.RolePermission;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface RolePermissionMapper extends BaseMapper<RolePermission> {
-}
\ No newline at end of file
+
+    /**
+     * 查询角色的权限关系，包含已逻辑删除的记录
+     */
+    List<RolePermission> selectByRoleIdsWithDeleted(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 批量为角色授予权限，已撤销的关系会被恢复
+     */
+    int upsertBatch(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    /**
+     * 批量撤销角色的权限（逻辑删除），返回实际撤销的行数
+     */
+    int removeBatch(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds);
+}
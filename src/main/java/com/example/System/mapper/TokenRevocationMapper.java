@@ -0,0 +1,19 @@
+package com.example.System.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.System.entity.TokenRevocation;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 令牌吊销记录Mapper
+ */
+@Mapper
+public interface TokenRevocationMapper extends BaseMapper<TokenRevocation> {
+
+    /**
+     * 当前最大的记录ID，没有记录时返回null
+     */
+    @Select("SELECT MAX(id) FROM token_revocation")
+    Long selectMaxId();
+}
@@ -2,8 +2,11 @@ package com.example.System.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.System.entity.UserRole;
+import com.example.System.rbac.RoleGrantRow;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -13,4 +16,29 @@ public interface UserRoleMapper extends BaseMapper<UserRole> {
      * 根据用户ID获取角色ID列表
      */
     List<Long> getRoleIdsByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 联表查询用户的有效角色及各角色的权限ID
+     */
+    List<RoleGrantRow> getRoleGrantsByUserId(Long userId);
+
+    /**
+     * 联表批量查询多个用户的有效角色及各角色的权限ID
+     */
+    List<RoleGrantRow> getRoleGrantsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询用户的角色关系，包含已逻辑删除的记录
+     */
+    List<UserRole> selectByUserIdsWithDeleted(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 批量分配角色，已逻辑删除的关系会被恢复；返回值受驱动的CLIENT_FOUND_ROWS设置影响，不能用来判断是否发生变更
+     */
+    int upsertBatch(@Param("userRoles") List<UserRole> userRoles);
+
+    /**
+     * 批量取消角色（逻辑删除），返回实际取消的行数
+     */
+    int removeBatch(@Param("userRoles") List<UserRole> userRoles);
+}
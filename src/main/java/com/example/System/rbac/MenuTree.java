@@ -0,0 +1,229 @@
+package com.example.System.rbac;
+
+import com.example.System.dto.MenuNode;
+import com.example.System.entity.Permission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限菜单树
+ * 每个快照版本按parent_id构建一次：快照中的权限已按ID排序，依次挂到父节点的子链表末尾即得到有序的子节点，
+ * 再展开为先序数组，整个过程O(n)且不需要排序。parent_id为0、不存在或指向自身的权限作为根节点，
+ * 成环的权限从环上断开一个节点作为根。按用户过滤时从后向前扫描先序数组，已授权节点及其祖先保留，顺序保持不变。
+ */
+public final class MenuTree {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long snapshotVersion;
+
+    /**
+     * 先序排列的权限
+     */
+    private final Permission[] nodes;
+
+    /**
+     * 父节点在先序数组中的下标，根节点为-1
+     */
+    private final int[] parents;
+
+    /**
+     * 树结构和节点内容的摘要，不依赖本地快照版本号，集群各节点一致
+     */
+    private final long fingerprint;
+
+    private MenuTree(long snapshotVersion, Permission[] nodes, int[] parents) {
+        this.snapshotVersion = snapshotVersion;
+        this.nodes = nodes;
+        this.parents = parents;
+        this.fingerprint = fingerprint(nodes, parents);
+    }
+
+    public static MenuTree build(RbacSnapshot snapshot) {
+        return build(snapshot.getVersion(), snapshot.getPermissions());
+    }
+
+    /**
+     * 由按ID升序排列的权限构建菜单树
+     */
+    static MenuTree build(long snapshotVersion, List<Permission> permissions) {
+        int n = permissions.size();
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(permissions.get(i).getId(), i);
+        }
+        // 子节点链表，下标n为虚拟根
+        int[] parentOf = new int[n];
+        int[] firstChild = new int[n + 1];
+        int[] lastChild = new int[n + 1];
+        int[] nextSibling = new int[n];
+        Arrays.fill(firstChild, -1);
+        Arrays.fill(nextSibling, -1);
+        for (int i = 0; i < n; i++) {
+            Long parentId = permissions.get(i).getParentId();
+            Integer parent = parentId == null ? null : indexById.get(parentId);
+            int p = parent == null || parent == i ? n : parent;
+            parentOf[i] = p;
+            if (firstChild[p] < 0) {
+                firstChild[p] = i;
+            } else {
+                nextSibling[lastChild[p]] = i;
+            }
+            lastChild[p] = i;
+        }
+
+        Permission[] nodes = new Permission[n];
+        int[] parents = new int[n];
+        int[] position = new int[n + 1];
+        boolean[] visited = new boolean[n + 1];
+        int[] cursor = firstChild.clone();
+        int[] stack = new int[n + 1];
+        int size = 0;
+        position[n] = -1;
+        visited[n] = true;
+        // 先从虚拟根展开；之后仍未访问的权限位于环上或挂在环下，沿父链找到环上的节点断开作为根再展开
+        for (int i = -1; i < n; i++) {
+            int start = n;
+            if (i >= 0) {
+                if (visited[i]) {
+                    continue;
+                }
+                start = cycleNode(i, parentOf);
+                visited[start] = true;
+                position[start] = size;
+                nodes[size] = permissions.get(start);
+                parents[size++] = -1;
+            }
+            int depth = 0;
+            stack[depth++] = start;
+            while (depth > 0) {
+                int top = stack[depth - 1];
+                int child = cursor[top];
+                if (child < 0) {
+                    depth--;
+                    continue;
+                }
+                cursor[top] = nextSibling[child];
+                if (visited[child]) {
+                    continue;
+                }
+                visited[child] = true;
+                position[child] = size;
+                nodes[size] = permissions.get(child);
+                parents[size++] = position[top];
+                stack[depth++] = child;
+            }
+        }
+        return new MenuTree(snapshotVersion, nodes, parents);
+    }
+
+    /**
+     * 按用户的有效权限过滤，已授权节点的祖先即使未授权也保留，子节点保持ID升序
+     */
+    public List<MenuNode> filter(long[] permissionBits) {
+        int n = nodes.length;
+        boolean[] keep = new boolean[n];
+        boolean[] granted = new boolean[n];
+        // 先序数组中后代都在祖先之后，倒序扫描时子节点总是先于父节点处理
+        for (int k = n - 1; k >= 0; k--) {
+            granted[k] = PermissionBits.test(permissionBits, nodes[k].getId());
+            keep[k] |= granted[k];
+            if (keep[k] && parents[k] >= 0) {
+                keep[parents[k]] = true;
+            }
+        }
+        List<MenuNode> roots = new ArrayList<>();
+        MenuNode[] built = new MenuNode[n];
+        for (int k = 0; k < n; k++) {
+            if (!keep[k]) {
+                continue;
+            }
+            built[k] = toNode(nodes[k], parents[k] < 0 ? 0L : nodes[parents[k]].getId(), granted[k]);
+            if (parents[k] < 0) {
+                roots.add(built[k]);
+            } else {
+                built[parents[k]].getChildren().add(built[k]);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 计算用户菜单的ETag，树内容和用户有效权限都不变时保持不变
+     */
+    public String etag(long[] permissionBits) {
+        long hash = fingerprint;
+        int length = permissionBits.length;
+        while (length > 0 && permissionBits[length - 1] == 0L) {
+            length--;
+        }
+        for (int i = 0; i < length; i++) {
+            hash = mix(hash, permissionBits[i]);
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    private static MenuNode toNode(Permission permission, Long parentId, boolean granted) {
+        MenuNode node = new MenuNode();
+        node.setId(permission.getId());
+        node.setParentId(parentId);
+        node.setPermissionName(permission.getPermissionName());
+        node.setPermissionCode(permission.getPermissionCode());
+        node.setResourceType(permission.getResourceType());
+        node.setResourceUrl(permission.getResourceUrl());
+        node.setGranted(granted);
+        return node;
+    }
+
+    /**
+     * 从根不可达的节点沿父链上溯，返回第一个重复经过的节点（必在环上）
+     */
+    private static int cycleNode(int from, int[] parentOf) {
+        Map<Integer, Boolean> seen = new HashMap<>();
+        int node = from;
+        while (seen.put(node, Boolean.TRUE) == null) {
+            node = parentOf[node];
+        }
+        return node;
+    }
+
+    private static long fingerprint(Permission[] nodes, int[] parents) {
+        long hash = FNV_OFFSET;
+        for (int k = 0; k < nodes.length; k++) {
+            Permission permission = nodes[k];
+            hash = mix(hash, permission.getId());
+            hash = mix(hash, parents[k]);
+            hash = mix(hash, hashOf(permission.getPermissionName()));
+            hash = mix(hash, hashOf(permission.getPermissionCode()));
+            hash = mix(hash, hashOf(permission.getResourceType()));
+            hash = mix(hash, hashOf(permission.getResourceUrl()));
+        }
+        return hash;
+    }
+
+    private static long hashOf(String value) {
+        return value == null ? 0L : value.hashCode();
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
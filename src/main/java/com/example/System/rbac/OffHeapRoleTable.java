@@ -0,0 +1,338 @@
+package com.example.System.rbac;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 堆外的用户→角色表
+ * 主表为线性探测的开放寻址哈希表，每个槽16字节：用户ID和值。值的低16位为角色数，
+ * 只有一个角色时高48位直接存放角色ID，多个角色时高48位为角色ID在存储区中的偏移（以long计）。
+ * 存储区按固定大小分段，同一用户的角色不跨段；更新时在末尾追加，旧数据作为碎片，碎片过多时整理。
+ * 删除采用后移删除，不留墓碑。所有数据位于直接内存中，不产生堆上对象。非线程安全，由调用方加锁。
+ */
+final class OffHeapRoleTable {
+
+    private static final int SLOT_BYTES = 16;
+
+    /**
+     * 主表每段的槽数（64MB）
+     */
+    private static final int TABLE_SEGMENT_SHIFT = 22;
+
+    /**
+     * 存储区每段的long数（8MB）
+     */
+    private static final int ARENA_SEGMENT_SHIFT = 20;
+
+    private static final int ARENA_SEGMENT_LONGS = 1 << ARENA_SEGMENT_SHIFT;
+
+    private static final int COUNT_BITS = 16;
+
+    static final int MAX_ROLES_PER_USER = (1 << COUNT_BITS) - 1;
+
+    static final long MAX_ROLE_ID = (1L << (Long.SIZE - COUNT_BITS - 1)) - 1;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private ByteBuffer[] table;
+
+    private long capacity;
+
+    private long mask;
+
+    private long size;
+
+    private long relations;
+
+    private final List<ByteBuffer> arena = new ArrayList<>();
+
+    /**
+     * 存储区下一个可写位置（以long计的全局偏移）
+     */
+    private long arenaTop;
+
+    /**
+     * 存储区中已被替换或删除的long数
+     */
+    private long arenaGarbage;
+
+    OffHeapRoleTable(long expectedUsers) {
+        long required = Math.max(16, (long) Math.ceil(expectedUsers / MAX_LOAD_FACTOR));
+        allocateTable(Long.highestOneBit(required - 1) << 1);
+    }
+
+    /**
+     * 用户的直接角色ID，升序；不存在时返回null
+     */
+    long[] get(long userId) {
+        long slot = find(userId);
+        if (slot < 0) {
+            return null;
+        }
+        long value = value(slot);
+        int count = (int) (value & MAX_ROLES_PER_USER);
+        if (count == 1) {
+            return new long[]{value >>> COUNT_BITS};
+        }
+        long offset = value >>> COUNT_BITS;
+        long[] roleIds = new long[count];
+        ByteBuffer segment = arena.get((int) (offset >>> ARENA_SEGMENT_SHIFT));
+        int position = (int) (offset & (ARENA_SEGMENT_LONGS - 1)) << 3;
+        for (int i = 0; i < count; i++) {
+            roleIds[i] = segment.getLong(position + (i << 3));
+        }
+        return roleIds;
+    }
+
+    /**
+     * 设置用户的直接角色，roleIds需升序去重；为空时删除该用户
+     */
+    void put(long userId, long[] roleIds) {
+        if (roleIds.length == 0) {
+            remove(userId);
+            return;
+        }
+        if (roleIds.length > MAX_ROLES_PER_USER) {
+            throw new IllegalArgumentException("用户角色数超过上限: " + roleIds.length);
+        }
+        long value;
+        if (roleIds.length == 1) {
+            value = encode(roleIds[0], 1);
+        } else {
+            value = encode(append(roleIds), roleIds.length);
+        }
+        long slot = find(userId);
+        if (slot >= 0) {
+            release(value(slot));
+            relations -= count(value(slot));
+            setValue(slot, value);
+        } else {
+            if (size + 1 > capacity * MAX_LOAD_FACTOR) {
+                // 扩容后槽位全部重排，需在新表上重新查找插入位置
+                resize(capacity << 1);
+                slot = find(userId);
+            }
+            slot = -slot - 1;
+            setKey(slot, userId);
+            setValue(slot, value);
+            size++;
+        }
+        relations += roleIds.length;
+        if (arenaGarbage > ARENA_SEGMENT_LONGS && arenaGarbage * 2 > arenaTop) {
+            compact();
+        }
+    }
+
+    /**
+     * 删除用户，后续槽位中探测链经过该槽的条目依次前移
+     */
+    void remove(long userId) {
+        long slot = find(userId);
+        if (slot < 0) {
+            return;
+        }
+        release(value(slot));
+        relations -= count(value(slot));
+        size--;
+        long hole = slot;
+        long next = (hole + 1) & mask;
+        while (value(next) != 0) {
+            long home = hash(key(next)) & mask;
+            // home不在(hole, next]区间内时，该条目可以移动到hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                setKey(hole, key(next));
+                setValue(hole, value(next));
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        setKey(hole, 0L);
+        setValue(hole, 0L);
+    }
+
+    /**
+     * 清空全部数据并释放存储区
+     */
+    void clear() {
+        allocateTable(16);
+        arena.clear();
+        arenaTop = 0;
+        arenaGarbage = 0;
+        size = 0;
+        relations = 0;
+    }
+
+    long size() {
+        return size;
+    }
+
+    long relations() {
+        return relations;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long tableBytes() {
+        return capacity * SLOT_BYTES;
+    }
+
+    long arenaBytes() {
+        return (long) arena.size() * ARENA_SEGMENT_LONGS * Long.BYTES;
+    }
+
+    long arenaUsedBytes() {
+        return (arenaTop - arenaGarbage) * Long.BYTES;
+    }
+
+    long arenaGarbageBytes() {
+        return arenaGarbage * Long.BYTES;
+    }
+
+    /**
+     * 查找用户所在槽；不存在时返回-(应插入的槽)-1
+     */
+    private long find(long userId) {
+        long slot = hash(userId) & mask;
+        for (long probes = 0; probes < capacity; probes++) {
+            if (value(slot) == 0) {
+                return -slot - 1;
+            }
+            if (key(slot) == userId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("哈希表已满");
+    }
+
+    private void resize(long newCapacity) {
+        ByteBuffer[] oldTable = table;
+        long oldCapacity = capacity;
+        allocateTable(newCapacity);
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            ByteBuffer segment = oldTable[(int) (slot >>> TABLE_SEGMENT_SHIFT)];
+            int position = (int) (slot & ((1 << TABLE_SEGMENT_SHIFT) - 1)) * SLOT_BYTES;
+            long value = segment.getLong(position + 8);
+            if (value != 0) {
+                long key = segment.getLong(position);
+                long target = -find(key) - 1;
+                setKey(target, key);
+                setValue(target, value);
+            }
+        }
+    }
+
+    /**
+     * 把仍在使用的角色列表按主表顺序复制到新的存储区
+     */
+    private void compact() {
+        List<ByteBuffer> oldArena = new ArrayList<>(arena);
+        arena.clear();
+        arenaTop = 0;
+        arenaGarbage = 0;
+        for (long slot = 0; slot < capacity; slot++) {
+            long value = value(slot);
+            int count = count(value);
+            if (count < 2) {
+                continue;
+            }
+            long offset = value >>> COUNT_BITS;
+            ByteBuffer segment = oldArena.get((int) (offset >>> ARENA_SEGMENT_SHIFT));
+            int position = (int) (offset & (ARENA_SEGMENT_LONGS - 1)) << 3;
+            long[] roleIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                roleIds[i] = segment.getLong(position + (i << 3));
+            }
+            setValue(slot, encode(append(roleIds), count));
+        }
+    }
+
+    private long append(long[] roleIds) {
+        int used = (int) (arenaTop & (ARENA_SEGMENT_LONGS - 1));
+        if (arenaTop == (long) arena.size() << ARENA_SEGMENT_SHIFT || (used > 0 && used + roleIds.length > ARENA_SEGMENT_LONGS)) {
+            if (used > 0) {
+                // 当前段剩余空间放不下，剩余部分计为碎片
+                arenaGarbage += ARENA_SEGMENT_LONGS - used;
+            }
+            arena.add(allocate(ARENA_SEGMENT_LONGS * Long.BYTES));
+            arenaTop = (long) (arena.size() - 1) << ARENA_SEGMENT_SHIFT;
+        }
+        long offset = arenaTop;
+        ByteBuffer segment = arena.get(arena.size() - 1);
+        int position = (int) (offset & (ARENA_SEGMENT_LONGS - 1)) << 3;
+        for (int i = 0; i < roleIds.length; i++) {
+            segment.putLong(position + (i << 3), roleIds[i]);
+        }
+        arenaTop += roleIds.length;
+        return offset;
+    }
+
+    private void release(long value) {
+        int count = count(value);
+        if (count > 1) {
+            arenaGarbage += count;
+        }
+    }
+
+    private void allocateTable(long newCapacity) {
+        int segmentSlots = (int) Math.min(newCapacity, 1L << TABLE_SEGMENT_SHIFT);
+        ByteBuffer[] segments = new ByteBuffer[(int) (newCapacity / segmentSlots)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = allocate(segmentSlots * SLOT_BYTES);
+        }
+        table = segments;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+    }
+
+    private long key(long slot) {
+        return table[(int) (slot >>> TABLE_SEGMENT_SHIFT)].getLong(position(slot));
+    }
+
+    private long value(long slot) {
+        return table[(int) (slot >>> TABLE_SEGMENT_SHIFT)].getLong(position(slot) + 8);
+    }
+
+    private void setKey(long slot, long key) {
+        table[(int) (slot >>> TABLE_SEGMENT_SHIFT)].putLong(position(slot), key);
+    }
+
+    private void setValue(long slot, long value) {
+        table[(int) (slot >>> TABLE_SEGMENT_SHIFT)].putLong(position(slot) + 8, value);
+    }
+
+    private static int position(long slot) {
+        return (int) (slot & ((1 << TABLE_SEGMENT_SHIFT) - 1)) * SLOT_BYTES;
+    }
+
+    private static long encode(long payload, int count) {
+        if (payload < 0 || payload > MAX_ROLE_ID) {
+            throw new IllegalArgumentException("角色ID或偏移超出范围: " + payload);
+        }
+        return (payload << COUNT_BITS) | count;
+    }
+
+    private static int count(long value) {
+        return (int) (value & MAX_ROLES_PER_USER);
+    }
+
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 64位混合函数（MurmurHash3 fmix64），使连续的用户ID均匀分布
+     */
+    private static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.System.rbac;
+
+import com.example.System.common.CacheStatsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 堆外用户角色存储
+ * 开启后启动时在后台流式读取user_role全表，把每个用户的直接角色写入直接内存中的开放寻址表，
+ * 用户数达到千万级时也不占用堆内存；之后按USER_ROLE变更事件重新读取受影响用户的角色并原地更新。
+ * 加载完成前返回null，调用方回退到数据库查询。读取使用乐观读，与写入冲突时再加读锁重试。
+ */
+@Component
+public class OffHeapUserRoleStore implements CacheStatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapUserRoleStore.class);
+
+    @Autowired
+    private UserRoleScanner userRoleScanner;
+
+    @Value("${app.rbac.offheap.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.rbac.offheap.expected-users:1000000}")
+    private long expectedUsers;
+
+    private final StampedLock lock = new StampedLock();
+
+    private OffHeapRoleTable table;
+
+    private volatile boolean ready;
+
+    private volatile long loadMillis;
+
+    private final Object stateLock = new Object();
+
+    /**
+     * 是否正在全量加载
+     */
+    private boolean loading;
+
+    /**
+     * 加载期间是否收到了需要全量重新加载的变更
+     */
+    private boolean reloadRequested;
+
+    /**
+     * 加载期间收到变更的用户，新表替换后重新读取
+     */
+    private Set<Long> pendingUserIds = new LinkedHashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            startLoad();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 用户的直接角色ID，升序；未加载完成时返回null，用户没有角色时返回空数组
+     */
+    public long[] getRoleIds(long userId) {
+        if (!ready) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                long[] roleIds = table.get(userId);
+                if (lock.validate(stamp)) {
+                    return roleIds == null ? new long[0] : roleIds;
+                }
+            } catch (RuntimeException e) {
+                // 与写入并发时可能读到不一致的数据，加读锁重试
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            long[] roleIds = table.get(userId);
+            return roleIds == null ? new long[0] : roleIds;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 先于授权缓存失效执行，保证失效后重新加载时读到的是新数据
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRbacChanged(RbacChangedEvent event) {
+        if (!enabled || event.getChangeType() != RbacChangeType.USER_ROLE) {
+            return;
+        }
+        List<Long> targetIds = event.getTargetIds();
+        synchronized (stateLock) {
+            if (loading) {
+                if (targetIds.isEmpty()) {
+                    reloadRequested = true;
+                } else {
+                    pendingUserIds.addAll(targetIds);
+                }
+                return;
+            }
+        }
+        if (targetIds.isEmpty()) {
+            startLoad();
+        } else if (ready) {
+            refreshUsers(targetIds);
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return "offHeapUserRoles";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ready", ready);
+        if (table == null) {
+            return stats;
+        }
+        long stamp = lock.readLock();
+        try {
+            long tableBytes = table.tableBytes();
+            long arenaBytes = table.arenaBytes();
+            stats.put("users", table.size());
+            stats.put("relations", table.relations());
+            stats.put("capacity", table.capacity());
+            stats.put("loadFactor", (double) table.size() / table.capacity());
+            stats.put("tableBytes", tableBytes);
+            stats.put("arenaBytes", arenaBytes);
+            stats.put("arenaUsedBytes", table.arenaUsedBytes());
+            stats.put("arenaGarbageBytes", table.arenaGarbageBytes());
+            stats.put("totalBytes", tableBytes + arenaBytes);
+            stats.put("bytesPerUser", table.size() == 0 ? 0 : (double) (tableBytes + arenaBytes) / table.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        stats.put("loadMillis", loadMillis);
+        return stats;
+    }
+
+    /**
+     * 在后台线程全量加载，加载期间读取返回null
+     */
+    private void startLoad() {
+        synchronized (stateLock) {
+            if (loading) {
+                reloadRequested = true;
+                return;
+            }
+            loading = true;
+            ready = false;
+        }
+        Thread loader = new Thread(this::load, "offheap-user-role-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 流式读取user_role全表构建新表，替换旧表后补上加载期间变更的用户
+     */
+    private void load() {
+        while (true) {
+            long start = System.currentTimeMillis();
+            OffHeapRoleTable loaded;
+            try {
+                loaded = loadAll();
+            } catch (Exception e) {
+                logger.error("加载堆外用户角色存储失败，用户角色继续从数据库查询", e);
+                synchronized (stateLock) {
+                    loading = false;
+                    reloadRequested = false;
+                    pendingUserIds.clear();
+                }
+                return;
+            }
+            long stamp = lock.writeLock();
+            try {
+                table = loaded;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            while (true) {
+                Set<Long> pending;
+                synchronized (stateLock) {
+                    if (reloadRequested) {
+                        reloadRequested = false;
+                        pendingUserIds.clear();
+                        break;
+                    }
+                    if (pendingUserIds.isEmpty()) {
+                        loading = false;
+                        loadMillis = System.currentTimeMillis() - start;
+                        ready = true;
+                        logger.info("堆外用户角色存储加载完成: users={}, relations={}, bytes={}, {}ms",
+                                loaded.size(), loaded.relations(), loaded.tableBytes() + loaded.arenaBytes(), loadMillis);
+                        return;
+                    }
+                    pending = pendingUserIds;
+                    pendingUserIds = new LinkedHashSet<>();
+                }
+                refreshUsers(pending);
+            }
+        }
+    }
+
+    private OffHeapRoleTable loadAll() {
+        OffHeapRoleTable loaded = new OffHeapRoleTable(expectedUsers);
+        userRoleScanner.scanAll(loaded::put);
+        return loaded;
+    }
+
+    /**
+     * 重新读取指定用户的角色并写入，串行执行避免先读到的旧数据后写入
+     */
+    private synchronized void refreshUsers(Collection<Long> userIds) {
+        Map<Long, long[]> roleIdsByUser = userRoleScanner.load(userIds);
+        long stamp = lock.writeLock();
+        try {
+            roleIdsByUser.forEach(table::put);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.System.rbac;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * 权限位图工具
+ * 以权限ID作为位下标（自增ID不会复用，因此下标稳定），位图以long[]按字存储，
+ * 在令牌中编码为Base64URL字符串，鉴权时ANY/ALL都是按字的位运算。
+ * 角色位图同样以角色ID为下标，复用本工具。
+ */
+public final class PermissionBits {
+
+    public static final long[] EMPTY = new long[0];
+
+    private PermissionBits() {
+    }
+
+    /**
+     * 由权限ID集合构建位图
+     */
+    public static long[] of(Collection<Long> ids) {
+        BitSet bitSet = new BitSet();
+        for (Long id : ids) {
+            if (id != null && id >= 0 && id <= Integer.MAX_VALUE) {
+                bitSet.set(id.intValue());
+            }
+        }
+        return bitSet.toLongArray();
+    }
+
+    /**
+     * 判断位图中是否包含指定ID
+     */
+    public static boolean test(long[] words, long id) {
+        if (id < 0) {
+            return false;
+        }
+        int wordIndex = (int) (id >>> 6);
+        return wordIndex < words.length && (words[wordIndex] & (1L << id)) != 0;
+    }
+
+    /**
+     * granted与required存在交集（required为空时返回false）
+     */
+    public static boolean containsAny(long[] granted, long[] required) {
+        int length = Math.min(granted.length, required.length);
+        for (int i = 0; i < length; i++) {
+            if ((granted[i] & required[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * granted包含required中的全部位
+     */
+    public static boolean containsAll(long[] granted, long[] required) {
+        for (int i = 0; i < required.length; i++) {
+            long grantedWord = i < granted.length ? granted[i] : 0L;
+            if ((grantedWord & required[i]) != required[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 两个位图按位或，返回新数组
+     */
+    public static long[] or(long[] a, long[] b) {
+        long[] longer = a.length >= b.length ? a : b;
+        long[] shorter = a.length >= b.length ? b : a;
+        long[] result = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            result[i] |= shorter[i];
+        }
+        return result;
+    }
+
+    /**
+     * 位图中置位的数量
+     */
+    public static int cardinality(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 位图中置位的ID（升序）
+     */
+    public static long[] toIds(long[] words) {
+        long[] ids = new long[cardinality(words)];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = ((long) i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 编码为Base64URL字符串（小端字节序，无填充）
+     */
+    public static String encode(long[] words) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(BitSet.valueOf(words).toByteArray());
+    }
+
+    /**
+     * 从Base64URL字符串解码
+     */
+    public static long[] decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return EMPTY;
+        }
+        return BitSet.valueOf(Base64.getUrlDecoder().decode(encoded)).toLongArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.System.rbac;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限代码段字典树
+ * 权限代码按冒号分段（如user:view）建树，用于把通配符授权（user:*、*:view、*）展开为具体权限。
+ * 通配符*匹配任意一个段；位于末尾时匹配其后的任意层级。
+ */
+public final class PermissionTrie {
+
+    public static final String SEPARATOR = ":";
+
+    public static final String WILDCARD = "*";
+
+    private final Node root = new Node();
+
+    /**
+     * 加入一个权限代码
+     */
+    public void add(String permissionCode, long permissionId) {
+        if (permissionCode == null || permissionCode.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        for (String segment : permissionCode.split(SEPARATOR)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        node.ids.add(permissionId);
+    }
+
+    /**
+     * 查找与模式匹配的全部权限ID
+     */
+    public List<Long> match(String pattern) {
+        List<Long> result = new ArrayList<>();
+        if (pattern != null && !pattern.isEmpty()) {
+            match(root, pattern.split(SEPARATOR), 0, result);
+        }
+        return result;
+    }
+
+    /**
+     * 权限代码是否包含通配符段
+     */
+    public static boolean isWildcard(String permissionCode) {
+        if (permissionCode == null) {
+            return false;
+        }
+        for (String segment : permissionCode.split(SEPARATOR)) {
+            if (WILDCARD.equals(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void match(Node node, String[] segments, int index, List<Long> result) {
+        if (index == segments.length) {
+            result.addAll(node.ids);
+            return;
+        }
+        String segment = segments[index];
+        if (!WILDCARD.equals(segment)) {
+            Node child = node.children.get(segment);
+            if (child != null) {
+                match(child, segments, index + 1, result);
+            }
+            return;
+        }
+        boolean last = index == segments.length - 1;
+        for (Node child : node.children.values()) {
+            if (last) {
+                collect(child, result);
+            } else {
+                match(child, segments, index + 1, result);
+            }
+        }
+    }
+
+    private static void collect(Node node, List<Long> result) {
+        result.addAll(node.ids);
+        for (Node child : node.children.values()) {
+            collect(child, result);
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Long> ids = new ArrayList<>(1);
+    }
+}
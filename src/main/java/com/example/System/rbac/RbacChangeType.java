@@ -0,0 +1,27 @@
+package com.example.System.rbac;
+
+/**
+ * RBAC数据变更类型
+ */
+public enum RbacChangeType {
+
+    /**
+     * 角色新增、修改或删除，目标ID为角色ID
+     */
+    ROLE,
+
+    /**
+     * 权限新增、修改或删除，目标ID为权限ID
+     */
+    PERMISSION,
+
+    /**
+     * 用户角色关系变更，目标ID为用户ID，为空时表示全部用户
+     */
+    USER_ROLE,
+
+    /**
+     * 角色权限关系变更，目标ID为角色ID
+     */
+    ROLE_PERMISSION
+}
@@ -0,0 +1,42 @@
+package com.example.System.rbac;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RBAC数据变更事件
+ * 角色、权限及其关联关系变更后发布，各级缓存据此失效或重建
+ */
+public class RbacChangedEvent extends ApplicationEvent {
+
+    private final long version;
+    private final RbacChangeType changeType;
+    private final List<Long> targetIds;
+
+    public RbacChangedEvent(Object source, long version, RbacChangeType changeType, Collection<Long> targetIds) {
+        super(source);
+        this.version = version;
+        this.changeType = changeType;
+        this.targetIds = List.copyOf(targetIds);
+    }
+
+    /**
+     * 变更后的RBAC版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public RbacChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * 变更涉及的目标ID，含义见RbacChangeType
+     */
+    public List<Long> getTargetIds() {
+        return targetIds;
+    }
+}
@@ -0,0 +1,402 @@
+package com.example.System.rbac;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+/**
+ * RBAC数据快照
+ * 完整的角色→权限关系图，角色和权限按ID升序存放在原始类型数组中，每个角色对应一个权限位图。
+ * 通配符权限（user:*、*:view）和父权限蕴含的子权限在加载时展开为闭包，并入角色的有效权限位图。
+ * 角色继承（parent_id）同样在加载时计算传递闭包，角色的有效权限包含全部祖先角色的权限。
+ * 加载后不可变，变更时由RbacSnapshotManager整体替换，鉴权时只做内存查找和位运算。
+ */
+public final class RbacSnapshot {
+
+    private final long version;
+
+    private final long[] roleIds;
+    private final Role[] roles;
+    private final long[][] inheritedRoleIds;
+    private final long[][] roleDirectPermissionBits;
+    private final long[][] rolePermissionBits;
+    private final Map<String, Long> roleIdsByCode;
+
+    private final long[] permissionIds;
+    private final Permission[] permissions;
+    private final Map<String, Long> permissionIdsByCode;
+
+    /**
+     * 会蕴含其他权限的权限ID（升序）及其闭包位图（含自身）：通配符权限蕴含所匹配的权限，父权限蕴含全部子孙权限
+     */
+    private final long[] implyingPermissionIds;
+    private final long[][] impliedPermissionBits;
+
+    public RbacSnapshot(long version, List<Role> roles, List<Permission> permissions) {
+        this(version, roles, permissions, List.of());
+    }
+
+    public RbacSnapshot(long version, List<Role> roles, List<Permission> permissions,
+                        List<RolePermission> rolePermissions) {
+        this.version = version;
+
+        this.roles = roles.stream()
+                .sorted(Comparator.comparing(Role::getId))
+                .toArray(Role[]::new);
+        this.roleIds = Arrays.stream(this.roles).mapToLong(Role::getId).toArray();
+        this.roleIdsByCode = new HashMap<>(roles.size() * 2);
+        for (Role role : this.roles) {
+            roleIdsByCode.put(role.getRoleCode(), role.getId());
+        }
+
+        this.permissions = permissions.stream()
+                .sorted(Comparator.comparing(Permission::getId))
+                .toArray(Permission[]::new);
+        this.permissionIds = Arrays.stream(this.permissions).mapToLong(Permission::getId).toArray();
+        this.permissionIdsByCode = new HashMap<>(permissions.size() * 2);
+        for (Permission permission : this.permissions) {
+            permissionIdsByCode.put(permission.getPermissionCode(), permission.getId());
+        }
+
+        // 预先计算权限蕴含关系的传递闭包，鉴权时只需位运算
+        Map<Long, List<Long>> implications = buildImplications(this.permissions);
+        this.implyingPermissionIds = implications.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.impliedPermissionBits = new long[implyingPermissionIds.length][];
+        for (int i = 0; i < implyingPermissionIds.length; i++) {
+            impliedPermissionBits[i] = closureOf(implyingPermissionIds[i], implications);
+        }
+
+        // 按角色汇总权限位图，忽略已删除的角色或权限
+        BitSet[] bitSets = new BitSet[this.roleIds.length];
+        for (RolePermission rolePermission : rolePermissions) {
+            int roleIndex = Arrays.binarySearch(this.roleIds, rolePermission.getRoleId());
+            Long permissionId = rolePermission.getPermissionId();
+            if (roleIndex < 0 || permissionId == null || Arrays.binarySearch(permissionIds, permissionId) < 0) {
+                continue;
+            }
+            if (bitSets[roleIndex] == null) {
+                bitSets[roleIndex] = new BitSet();
+            }
+            bitSets[roleIndex].set(permissionId.intValue());
+        }
+        this.roleDirectPermissionBits = new long[this.roleIds.length][];
+        for (int i = 0; i < bitSets.length; i++) {
+            roleDirectPermissionBits[i] = bitSets[i] == null ? PermissionBits.EMPTY : bitSets[i].toLongArray();
+        }
+
+        // 角色继承的传递闭包（含自身），有效权限为闭包内全部角色直接权限的并集再展开蕴含关系
+        this.inheritedRoleIds = new long[this.roleIds.length][];
+        this.rolePermissionBits = new long[this.roleIds.length][];
+        for (int i = 0; i < this.roleIds.length; i++) {
+            inheritedRoleIds[i] = ancestorsOf(i);
+            long[] bits = PermissionBits.EMPTY;
+            for (long inheritedId : inheritedRoleIds[i]) {
+                bits = PermissionBits.or(bits, roleDirectPermissionBits[Arrays.binarySearch(this.roleIds, inheritedId)]);
+            }
+            rolePermissionBits[i] = expandPermissionBits(bits);
+        }
+    }
+
+    /**
+     * 快照版本号，每次加载递增，仅在本节点内用于判断快照是否已被替换
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getRoleCount() {
+        return roleIds.length;
+    }
+
+    public int getPermissionCount() {
+        return permissionIds.length;
+    }
+
+    /**
+     * 根据角色代码获取角色ID（即位图下标），不存在时返回null
+     */
+    public Long getRoleId(String roleCode) {
+        return roleIdsByCode.get(roleCode);
+    }
+
+    /**
+     * 根据角色ID获取角色，不存在时返回null
+     */
+    public Role getRole(Long roleId) {
+        int index = roleId == null ? -1 : Arrays.binarySearch(roleIds, roleId);
+        return index < 0 ? null : roles[index];
+    }
+
+    /**
+     * 是否存在指定角色
+     */
+    public boolean containsRole(long roleId) {
+        return Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    /**
+     * 全部角色（按ID升序）
+     */
+    public List<Role> getRoles() {
+        return List.of(roles);
+    }
+
+    /**
+     * 根据角色ID获取角色列表，忽略不存在的角色
+     */
+    public List<Role> getRoles(long[] ids) {
+        List<Role> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            int index = Arrays.binarySearch(roleIds, id);
+            if (index >= 0) {
+                result.add(roles[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将角色代码转换为角色位图，忽略不存在的代码
+     */
+    public long[] roleMask(String... roleCodes) {
+        return toMask(roleIdsByCode, roleCodes);
+    }
+
+    /**
+     * 角色自身及其继承的全部祖先角色ID（升序），角色不存在时返回空数组
+     */
+    public long[] getInheritedRoleIds(long roleId) {
+        int index = Arrays.binarySearch(roleIds, roleId);
+        return index < 0 ? new long[0] : inheritedRoleIds[index].clone();
+    }
+
+    /**
+     * 将直接分配的角色展开为有效角色（含继承的祖先角色），结果升序去重
+     */
+    public long[] effectiveRoleIds(long[] directRoleIds) {
+        if (directRoleIds.length == 1) {
+            return getInheritedRoleIds(directRoleIds[0]);
+        }
+        return Arrays.stream(directRoleIds)
+                .flatMap(id -> {
+                    int index = Arrays.binarySearch(roleIds, id);
+                    return index < 0 ? LongStream.empty() : Arrays.stream(inheritedRoleIds[index]);
+                })
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * 将角色的父角色设置为指定角色后是否会形成继承环
+     */
+    public boolean wouldCreateInheritanceCycle(long roleId, Long parentId) {
+        if (parentId == null || parentId == 0L) {
+            return false;
+        }
+        if (parentId == roleId) {
+            return true;
+        }
+        return Arrays.binarySearch(getInheritedRoleIds(parentId), roleId) >= 0;
+    }
+
+    /**
+     * 角色的有效权限位图（含继承的角色以及通配符和父权限蕴含的权限），调用方不得修改返回的数组
+     */
+    public long[] getRolePermissionBits(long roleId) {
+        int index = Arrays.binarySearch(roleIds, roleId);
+        return index < 0 ? PermissionBits.EMPTY : rolePermissionBits[index];
+    }
+
+    /**
+     * 角色在role_permission中直接授予的权限位图，调用方不得修改返回的数组
+     */
+    public long[] getRoleDirectPermissionBits(long roleId) {
+        int index = Arrays.binarySearch(roleIds, roleId);
+        return index < 0 ? PermissionBits.EMPTY : roleDirectPermissionBits[index];
+    }
+
+    /**
+     * 将直接授予的权限位图展开为有效权限位图
+     */
+    public long[] expandPermissionBits(long[] permissionBits) {
+        long[] result = permissionBits;
+        for (int i = 0; i < implyingPermissionIds.length; i++) {
+            if (PermissionBits.test(permissionBits, implyingPermissionIds[i])) {
+                result = PermissionBits.or(result, impliedPermissionBits[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 多个角色的权限位图并集
+     */
+    public long[] permissionBitsOfRoles(long[] ids) {
+        long[] result = PermissionBits.EMPTY;
+        for (long id : ids) {
+            int index = Arrays.binarySearch(roleIds, id);
+            if (index >= 0 && rolePermissionBits[index].length > 0) {
+                result = PermissionBits.or(result, rolePermissionBits[index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 根据权限代码获取权限ID（即位图下标），不存在时返回null
+     */
+    public Long getPermissionId(String permissionCode) {
+        return permissionIdsByCode.get(permissionCode);
+    }
+
+    /**
+     * 根据权限ID获取权限，不存在时返回null
+     */
+    public Permission getPermission(Long permissionId) {
+        int index = permissionId == null ? -1 : Arrays.binarySearch(permissionIds, permissionId);
+        return index < 0 ? null : permissions[index];
+    }
+
+    /**
+     * 全部权限（按ID升序）
+     */
+    public List<Permission> getPermissions() {
+        return List.of(permissions);
+    }
+
+    /**
+     * 将权限位图还原为权限列表（按ID升序）
+     */
+    public List<Permission> getPermissions(long[] permissionBits) {
+        List<Permission> result = new ArrayList<>(PermissionBits.cardinality(permissionBits));
+        for (int i = 0; i < permissionIds.length; i++) {
+            if (PermissionBits.test(permissionBits, permissionIds[i])) {
+                result.add(permissions[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 将权限代码转换为权限位图，忽略不存在的代码
+     */
+    public long[] permissionMask(String... permissionCodes) {
+        return toMask(permissionIdsByCode, permissionCodes);
+    }
+
+    /**
+     * 是否所有权限代码都存在
+     */
+    public boolean containsAllPermissionCodes(String... permissionCodes) {
+        for (String code : permissionCodes) {
+            if (!permissionIdsByCode.containsKey(code)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 过滤出快照中存在的角色ID并升序去重
+     */
+    public long[] existingRoleIds(Collection<Long> ids) {
+        return ids.stream()
+                .filter(id -> id != null && containsRole(id))
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * 过滤掉不存在的角色，ids需升序去重
+     */
+    public long[] existingRoleIds(long[] ids) {
+        return Arrays.stream(ids).filter(this::containsRole).toArray();
+    }
+
+    /**
+     * 沿父角色链向上收集祖先角色，遇到已访问的角色即停止，继承关系成环时不会死循环
+     */
+    private long[] ancestorsOf(int index) {
+        BitSet visited = new BitSet();
+        Role current = roles[index];
+        while (current != null && !visited.get(current.getId().intValue())) {
+            visited.set(current.getId().intValue());
+            current = getRole(current.getParentId());
+        }
+        return visited.stream().asLongStream().toArray();
+    }
+
+    /**
+     * 权限蕴含关系的直接边：通配符权限→匹配的权限，父权限→子权限
+     */
+    private static Map<Long, List<Long>> buildImplications(Permission[] permissions) {
+        PermissionTrie trie = new PermissionTrie();
+        Set<Long> ids = new HashSet<>();
+        for (Permission permission : permissions) {
+            trie.add(permission.getPermissionCode(), permission.getId());
+            ids.add(permission.getId());
+        }
+        Map<Long, List<Long>> implications = new HashMap<>();
+        for (Permission permission : permissions) {
+            Long parentId = permission.getParentId();
+            if (parentId != null && ids.contains(parentId) && !parentId.equals(permission.getId())) {
+                implications.computeIfAbsent(parentId, k -> new ArrayList<>()).add(permission.getId());
+            }
+            if (PermissionTrie.isWildcard(permission.getPermissionCode())) {
+                implications.computeIfAbsent(permission.getId(), k -> new ArrayList<>())
+                        .addAll(trie.match(permission.getPermissionCode()));
+            }
+        }
+        return implications;
+    }
+
+    /**
+     * 从指定权限出发可达的全部权限（含自身），父子关系成环时不会死循环
+     */
+    private static long[] closureOf(long permissionId, Map<Long, List<Long>> implications) {
+        BitSet visited = new BitSet();
+        Deque<Long> stack = new ArrayDeque<>();
+        stack.push(permissionId);
+        while (!stack.isEmpty()) {
+            long id = stack.pop();
+            if (visited.get((int) id)) {
+                continue;
+            }
+            visited.set((int) id);
+            for (Long next : implications.getOrDefault(id, List.of())) {
+                if (!visited.get(next.intValue())) {
+                    stack.push(next);
+                }
+            }
+        }
+        return visited.toLongArray();
+    }
+
+    private static long[] toMask(Map<String, Long> idsByCode, String[] codes) {
+        List<Long> ids = new ArrayList<>(codes.length);
+        for (String code : codes) {
+            Long id = idsByCode.get(code);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return PermissionBits.of(ids);
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.System.rbac;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * RBAC快照文件
+ * 文件依次为：固定长度的文件头、角色和权限字典（含每个角色直接权限的位图）、按用户ID升序的定长用户索引、
+ * 各用户的角色ID记录。字典较小，打开时解码到堆上并校验CRC；用户索引和角色记录通过内存映射直接读取，
+ * 千万级用户也无需加载到堆中，按用户ID二分查找。写入时先写临时文件，刷盘后原子替换。
+ */
+public final class RbacSnapshotFile {
+
+    private static final int MAGIC = 0x52424143;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * magic、format、changeLogVersion、createdAt、dictLength、userCount、relationCount、
+     * indexOffset、recordsOffset、recordsLength、dictCrc
+     */
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 8 + 8 + 8 + 8 + 8 + 8;
+
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final long changeLogVersion;
+
+    private final long createdAt;
+
+    private final List<Role> roles;
+
+    private final List<Permission> permissions;
+
+    private final List<RolePermission> rolePermissions;
+
+    private final long userCount;
+
+    private final long relationCount;
+
+    private final long fileBytes;
+
+    private final MappedByteBuffer index;
+
+    private final MappedByteBuffer records;
+
+    private RbacSnapshotFile(long changeLogVersion, long createdAt, List<Role> roles, List<Permission> permissions,
+                             List<RolePermission> rolePermissions, long userCount, long relationCount, long fileBytes,
+                             MappedByteBuffer index, MappedByteBuffer records) {
+        this.changeLogVersion = changeLogVersion;
+        this.createdAt = createdAt;
+        this.roles = roles;
+        this.permissions = permissions;
+        this.rolePermissions = rolePermissions;
+        this.userCount = userCount;
+        this.relationCount = relationCount;
+        this.fileBytes = fileBytes;
+        this.index = index;
+        this.records = records;
+    }
+
+    /**
+     * 写入快照文件
+     *
+     * @param userRoles 按用户ID严格升序逐个回调用户及其直接角色
+     */
+    public static void write(Path target, long changeLogVersion, List<Role> roles, List<Permission> permissions,
+                             List<RolePermission> rolePermissions,
+                             Consumer<UserRoleScanner.UserRolesHandler> userRoles) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        String prefix = target.getFileName().toString();
+        Path indexFile = Files.createTempFile(directory, prefix, ".index");
+        Path recordsFile = Files.createTempFile(directory, prefix, ".records");
+        Path tempFile = Files.createTempFile(directory, prefix, ".tmp");
+        try {
+            long[] counts = new long[3];
+            try (DataOutputStream indexOut = output(indexFile); DataOutputStream recordsOut = output(recordsFile)) {
+                long[] lastUserId = {Long.MIN_VALUE};
+                userRoles.accept((userId, roleIds) -> {
+                    if (userId <= lastUserId[0]) {
+                        throw new IllegalStateException("用户ID必须严格升序: " + userId);
+                    }
+                    lastUserId[0] = userId;
+                    try {
+                        indexOut.writeLong(userId);
+                        indexOut.writeLong(counts[2]);
+                        recordsOut.writeInt(roleIds.length);
+                        for (long roleId : roleIds) {
+                            recordsOut.writeLong(roleId);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    counts[0]++;
+                    counts[1] += roleIds.length;
+                    counts[2] += 4 + 8L * roleIds.length;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            byte[] dict = encodeDictionary(roles, permissions, rolePermissions);
+            CRC32 crc = new CRC32();
+            crc.update(dict);
+            long indexOffset = HEADER_BYTES + dict.length;
+            long recordsOffset = indexOffset + counts[0] * INDEX_ENTRY_BYTES;
+            try (DataOutputStream out = output(tempFile)) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(changeLogVersion);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(dict.length);
+                out.writeLong(counts[0]);
+                out.writeLong(counts[1]);
+                out.writeLong(indexOffset);
+                out.writeLong(recordsOffset);
+                out.writeLong(counts[2]);
+                out.writeLong(crc.getValue());
+                out.write(dict);
+            }
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                append(out, indexFile);
+                append(out, recordsFile);
+                out.force(true);
+            }
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(indexFile);
+            Files.deleteIfExists(recordsFile);
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 打开快照文件，格式不正确或已损坏时抛出IOException
+     */
+    public static RbacSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("快照文件不完整");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                throw new IOException("快照文件格式不支持");
+            }
+            long changeLogVersion = header.getLong();
+            long createdAt = header.getLong();
+            int dictLength = header.getInt();
+            long userCount = header.getLong();
+            long relationCount = header.getLong();
+            long indexOffset = header.getLong();
+            long recordsOffset = header.getLong();
+            long recordsLength = header.getLong();
+            long dictCrc = header.getLong();
+            long indexLength = userCount * INDEX_ENTRY_BYTES;
+            if (dictLength < 0 || indexOffset != HEADER_BYTES + (long) dictLength
+                    || recordsOffset != indexOffset + indexLength || recordsOffset + recordsLength != size) {
+                throw new IOException("快照文件不完整");
+            }
+            if (indexLength > Integer.MAX_VALUE || recordsLength > Integer.MAX_VALUE) {
+                throw new IOException("快照文件用户数据超过单段映射上限");
+            }
+            ByteBuffer dict = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, dictLength);
+            byte[] dictBytes = new byte[dictLength];
+            dict.get(dictBytes);
+            CRC32 crc = new CRC32();
+            crc.update(dictBytes);
+            if (crc.getValue() != dictCrc) {
+                throw new IOException("快照文件校验失败");
+            }
+            List<Role> roles = new ArrayList<>();
+            List<Permission> permissions = new ArrayList<>();
+            List<RolePermission> rolePermissions = new ArrayList<>();
+            decodeDictionary(ByteBuffer.wrap(dictBytes), roles, permissions, rolePermissions);
+            // 映射在通道关闭后仍然有效
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexLength);
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, recordsOffset, recordsLength);
+            return new RbacSnapshotFile(changeLogVersion, createdAt, roles, permissions, rolePermissions,
+                    userCount, relationCount, size, index, records);
+        }
+    }
+
+    /**
+     * 用户的直接角色ID，升序；写入时没有角色的用户返回空数组
+     */
+    public long[] getRoleIds(long userId) {
+        long low = 0;
+        long high = userCount - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int position = (int) (middle * INDEX_ENTRY_BYTES);
+            long key = index.getLong(position);
+            if (key < userId) {
+                low = middle + 1;
+            } else if (key > userId) {
+                high = middle - 1;
+            } else {
+                int offset = (int) index.getLong(position + 8);
+                long[] roleIds = new long[records.getInt(offset)];
+                for (int i = 0; i < roleIds.length; i++) {
+                    roleIds[i] = records.getLong(offset + 4 + i * 8);
+                }
+                return roleIds;
+            }
+        }
+        return new long[0];
+    }
+
+    public long getChangeLogVersion() {
+        return changeLogVersion;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Role> getRoles() {
+        return roles;
+    }
+
+    public List<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public List<RolePermission> getRolePermissions() {
+        return rolePermissions;
+    }
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public long getRelationCount() {
+        return relationCount;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    private static byte[] encodeDictionary(List<Role> roles, List<Permission> permissions,
+                                           List<RolePermission> rolePermissions) throws IOException {
+        Map<Long, BitSet> bitsByRole = new HashMap<>();
+        for (RolePermission rolePermission : rolePermissions) {
+            if (rolePermission.getRoleId() != null && rolePermission.getPermissionId() != null) {
+                bitsByRole.computeIfAbsent(rolePermission.getRoleId(), k -> new BitSet())
+                        .set(rolePermission.getPermissionId().intValue());
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(permissions.size());
+        for (Permission permission : permissions) {
+            out.writeLong(permission.getId());
+            writeLong(out, permission.getParentId());
+            writeString(out, permission.getPermissionName());
+            writeString(out, permission.getPermissionCode());
+            writeString(out, permission.getResourceType());
+            writeString(out, permission.getResourceUrl());
+            writeString(out, permission.getRequestMethod());
+            writeString(out, permission.getDescription());
+            writeTime(out, permission.getCreateTime());
+            writeTime(out, permission.getUpdateTime());
+        }
+        out.writeInt(roles.size());
+        for (Role role : roles) {
+            out.writeLong(role.getId());
+            writeLong(out, role.getParentId());
+            writeString(out, role.getRoleName());
+            writeString(out, role.getRoleCode());
+            writeString(out, role.getDescription());
+            writeTime(out, role.getCreateTime());
+            writeTime(out, role.getUpdateTime());
+            BitSet bits = bitsByRole.get(role.getId());
+            long[] words = bits == null ? PermissionBits.EMPTY : bits.toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void decodeDictionary(ByteBuffer in, List<Role> roles, List<Permission> permissions,
+                                         List<RolePermission> rolePermissions) {
+        int permissionCount = in.getInt();
+        for (int i = 0; i < permissionCount; i++) {
+            Permission permission = new Permission();
+            permission.setId(in.getLong());
+            permission.setParentId(readLong(in));
+            permission.setPermissionName(readString(in));
+            permission.setPermissionCode(readString(in));
+            permission.setResourceType(readString(in));
+            permission.setResourceUrl(readString(in));
+            permission.setRequestMethod(readString(in));
+            permission.setDescription(readString(in));
+            permission.setCreateTime(readTime(in));
+            permission.setUpdateTime(readTime(in));
+            permission.setDeleted(0);
+            permissions.add(permission);
+        }
+        int roleCount = in.getInt();
+        for (int i = 0; i < roleCount; i++) {
+            Role role = new Role();
+            role.setId(in.getLong());
+            role.setParentId(readLong(in));
+            role.setRoleName(readString(in));
+            role.setRoleCode(readString(in));
+            role.setDescription(readString(in));
+            role.setCreateTime(readTime(in));
+            role.setUpdateTime(readTime(in));
+            role.setDeleted(0);
+            roles.add(role);
+            long[] words = new long[in.getInt()];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = in.getLong();
+            }
+            for (long permissionId : PermissionBits.toIds(words)) {
+                RolePermission rolePermission = new RolePermission();
+                rolePermission.setRoleId(role.getId());
+                rolePermission.setPermissionId(permissionId);
+                rolePermissions.add(rolePermission);
+            }
+        }
+    }
+
+    private static DataOutputStream output(Path path) throws IOException {
+        OutputStream out = Files.newOutputStream(path, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    }
+
+    private static void append(FileChannel out, Path source) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        writeString(out, value == null ? null : value.toString());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer in) {
+        String value = readString(in);
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+}
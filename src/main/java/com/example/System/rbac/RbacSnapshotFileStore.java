@@ -0,0 +1,323 @@
+package com.example.System.rbac;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.System.common.CacheStatsProvider;
+import com.example.System.entity.Permission;
+import com.example.System.entity.RbacChangeLog;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import com.example.System.mapper.PermissionMapper;
+import com.example.System.mapper.RbacChangeLogMapper;
+import com.example.System.mapper.RoleMapper;
+import com.example.System.mapper.RolePermissionMapper;
+import com.example.System.service.RbacVersionService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RBAC快照文件存储
+ * 定时把角色、权限、角色权限和全部用户角色关系写入快照文件，文件头记录写入时的变更日志版本号。
+ * 重启时映射该文件，首次鉴权直接用文件中的数据构建快照、查询用户角色，不必等待数据库和缓存预热；
+ * 同时在后台把文件版本号与rbac_change_log比对：一致则确认，落后则把期间的变更作为本地事件重新发布，
+ * 由各缓存按正常流程失效，变更日志已被清理等无法确定差异时全部失效。
+ * 启动后发生用户角色变更的用户不再从文件读取。依赖集群同步的变更日志版本号，未开启同步时不使用。
+ */
+@Component
+public class RbacSnapshotFileStore implements CacheStatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacSnapshotFileStore.class);
+
+    /**
+     * 启动校验时最多逐条重放的变更数，超过时全部失效
+     */
+    private static final int MAX_REPLAY_CHANGES = 10000;
+
+    /**
+     * 文件中已过期用户的最大数量，超过后不再从文件读取用户角色
+     */
+    private static final int MAX_STALE_USERS = 100000;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private RbacChangeLogMapper rbacChangeLogMapper;
+
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Autowired
+    private UserRoleScanner userRoleScanner;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.rbac.snapshot.file.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.rbac.snapshot.file.path:data/rbac-snapshot.bin}")
+    private String path;
+
+    /**
+     * 启动时映射的快照文件，确认版本且用户角色数据不再使用后置为null以释放映射
+     */
+    private volatile RbacSnapshotFile file;
+
+    /**
+     * 文件中的用户角色数据是否仍可使用
+     */
+    private volatile boolean userDataAvailable;
+
+    /**
+     * 启动后用户角色已变更、不能再从文件读取的用户
+     */
+    private final Set<Long> staleUserIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 文件中的角色权限数据已被数据库中更新的数据取代
+     */
+    private volatile boolean superseded;
+
+    private volatile boolean verified;
+
+    private volatile long lastWriteVersion = -1L;
+
+    private volatile long lastWriteMillis;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (!rbacVersionService.isSyncEnabled()) {
+            logger.warn("RBAC快照文件依赖变更日志版本号，未开启app.rbac.sync.enabled时不使用");
+            return;
+        }
+        Path filePath = Paths.get(path);
+        if (!Files.exists(filePath)) {
+            logger.info("RBAC快照文件不存在，将在首次写入后用于下次启动: {}", filePath.toAbsolutePath());
+            return;
+        }
+        try {
+            file = RbacSnapshotFile.open(filePath);
+            lastWriteVersion = file.getChangeLogVersion();
+            userDataAvailable = true;
+            logger.info("已映射RBAC快照文件: version={}, roles={}, permissions={}, users={}, bytes={}",
+                    file.getChangeLogVersion(), file.getRoles().size(), file.getPermissions().size(),
+                    file.getUserCount(), file.getFileBytes());
+        } catch (Exception e) {
+            logger.warn("RBAC快照文件无法使用，从数据库加载: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动时可用于构建首个快照的文件；已被数据库数据取代时返回null
+     */
+    public RbacSnapshotFile getWarmStartFile() {
+        return superseded ? null : file;
+    }
+
+    /**
+     * 从快照文件读取用户的直接角色，文件不可用或该用户已变更时返回null
+     */
+    public long[] getRoleIds(long userId) {
+        RbacSnapshotFile current = file;
+        if (current == null || !userDataAvailable || staleUserIds.contains(userId)) {
+            return null;
+        }
+        return current.getRoleIds(userId);
+    }
+
+    /**
+     * 先于授权缓存失效执行，失效后重新加载时不会再读到文件中的旧数据
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRbacChanged(RbacChangedEvent event) {
+        if (file == null || (!userDataAvailable && event.getChangeType() == RbacChangeType.USER_ROLE)) {
+            return;
+        }
+        if (event.getChangeType() != RbacChangeType.USER_ROLE) {
+            superseded = true;
+            return;
+        }
+        if (event.getTargetIds().isEmpty()) {
+            dropUserData("用户角色全量变更");
+            return;
+        }
+        staleUserIds.addAll(event.getTargetIds());
+        if (staleUserIds.size() > MAX_STALE_USERS) {
+            dropUserData("变更用户数超过" + MAX_STALE_USERS);
+        }
+    }
+
+    /**
+     * 后台确认文件版本号，直到确认完成
+     */
+    @Scheduled(fixedDelayString = "${app.rbac.snapshot.file.verify-interval:5000}", initialDelay = 1000)
+    public void verify() {
+        RbacSnapshotFile current = file;
+        if (current == null || verified) {
+            return;
+        }
+        try {
+            Long maxId = rbacChangeLogMapper.selectMaxId();
+            long version = maxId == null ? 0L : maxId;
+            long fileVersion = current.getChangeLogVersion();
+            if (version != fileVersion) {
+                replay(fileVersion, version);
+            }
+            verified = true;
+            if (!userDataAvailable) {
+                file = null;
+            }
+            logger.info("RBAC快照文件版本已确认: file={}, database={}", fileVersion, version);
+        } catch (Exception e) {
+            logger.debug("确认RBAC快照文件版本失败，稍后重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时写入快照文件，版本未变化时跳过
+     */
+    @Scheduled(fixedDelayString = "${app.rbac.snapshot.file.write-interval:600000}", initialDelay = 30000)
+    public void write() {
+        if (!enabled || !rbacVersionService.isSyncEnabled()) {
+            return;
+        }
+        try {
+            // 先取版本号再读数据，文件中的数据不会比版本号旧；本节点拉取初始化前版本号不可用，以数据库中的最大ID为上限
+            Long maxId = rbacChangeLogMapper.selectMaxId();
+            long version = Math.min(rbacVersionService.getCurrentVersion(), maxId == null ? 0L : maxId);
+            if (version == lastWriteVersion) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            List<Role> roles = roleMapper.selectList(null);
+            List<Permission> permissions = permissionMapper.selectList(null);
+            List<RolePermission> rolePermissions = rolePermissionMapper.selectList(null);
+            RbacSnapshotFile.write(Paths.get(path), version, roles, permissions, rolePermissions, userRoleScanner::scanAll);
+            lastWriteVersion = version;
+            lastWriteMillis = System.currentTimeMillis() - start;
+            logger.info("RBAC快照文件已写入: version={}, {}ms", version, lastWriteMillis);
+        } catch (Exception e) {
+            logger.warn("写入RBAC快照文件失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return "rbacSnapshotFile";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        RbacSnapshotFile current = file;
+        stats.put("enabled", enabled);
+        stats.put("mapped", current != null);
+        stats.put("verified", verified);
+        stats.put("superseded", superseded);
+        stats.put("userDataAvailable", userDataAvailable);
+        if (current != null) {
+            stats.put("changeLogVersion", current.getChangeLogVersion());
+            stats.put("users", current.getUserCount());
+            stats.put("relations", current.getRelationCount());
+            stats.put("fileBytes", current.getFileBytes());
+            stats.put("staleUsers", staleUserIds.size());
+        }
+        stats.put("lastWriteVersion", lastWriteVersion);
+        stats.put("lastWriteMillis", lastWriteMillis);
+        return stats;
+    }
+
+    /**
+     * 把文件版本之后的变更作为本地事件重新发布
+     */
+    private void replay(long fileVersion, long version) {
+        Long minId = rbacChangeLogMapper.selectMinId();
+        List<RbacChangeLog> changes = List.of();
+        boolean complete = version > fileVersion && minId != null && minId <= fileVersion + 1;
+        if (complete) {
+            QueryWrapper<RbacChangeLog> queryWrapper = new QueryWrapper<>();
+            queryWrapper.gt("id", fileVersion).le("id", version).orderByAsc("id")
+                    .last("LIMIT " + (MAX_REPLAY_CHANGES + 1));
+            changes = rbacChangeLogMapper.selectList(queryWrapper);
+            complete = changes.size() <= MAX_REPLAY_CHANGES;
+        }
+        if (!complete) {
+            logger.info("RBAC快照文件落后且无法确定差异，全部失效: file={}, database={}", fileVersion, version);
+            publish(version, RbacChangeType.ROLE, List.of());
+            publish(version, RbacChangeType.USER_ROLE, List.of());
+            return;
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        boolean allUsers = false;
+        boolean rbacChanged = false;
+        for (RbacChangeLog change : changes) {
+            if (RbacChangeType.USER_ROLE.name().equals(change.getChangeType())) {
+                List<Long> targetIds = change.parseTargetIds();
+                // 没有目标表示全部用户，之后只需继续检查其他类型的变更
+                if (targetIds.isEmpty()) {
+                    allUsers = true;
+                    userIds.clear();
+                } else if (!allUsers) {
+                    userIds.addAll(targetIds);
+                }
+            } else {
+                rbacChanged = true;
+            }
+        }
+        logger.info("RBAC快照文件落后{}条变更，重新发布: users={}, rbacChanged={}",
+                changes.size(), allUsers ? "all" : userIds.size(), rbacChanged);
+        if (rbacChanged) {
+            publish(version, RbacChangeType.ROLE, List.of());
+        }
+        if (allUsers) {
+            publish(version, RbacChangeType.USER_ROLE, List.of());
+        } else if (!userIds.isEmpty()) {
+            publish(version, RbacChangeType.USER_ROLE, userIds);
+        }
+    }
+
+    private void publish(long version, RbacChangeType changeType, Collection<Long> targetIds) {
+        eventPublisher.publishEvent(new RbacChangedEvent(this, version, changeType, targetIds));
+    }
+
+    private void dropUserData(String reason) {
+        if (userDataAvailable) {
+            logger.info("不再从RBAC快照文件读取用户角色: {}", reason);
+            userDataAvailable = false;
+            staleUserIds.clear();
+            if (verified) {
+                file = null;
+            }
+        }
+    }
+}
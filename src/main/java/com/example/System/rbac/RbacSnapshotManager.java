@@ -0,0 +1,96 @@
+package com.example.System.rbac;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import com.example.System.mapper.PermissionMapper;
+import com.example.System.mapper.RoleMapper;
+import com.example.System.mapper.RolePermissionMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RBAC快照管理器
+ * 持有当前快照，首次访问时加载（有可用的快照文件时直接由文件构建），RBAC变更后重新加载并原子替换
+ */
+@Component
+public class RbacSnapshotManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacSnapshotManager.class);
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private RbacSnapshotFileStore rbacSnapshotFileStore;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile RbacSnapshot snapshot;
+
+    /**
+     * 获取当前快照
+     */
+    public RbacSnapshot getSnapshot() {
+        RbacSnapshot current = snapshot;
+        if (current == null) {
+            current = loadInitial();
+        }
+        return current;
+    }
+
+    /**
+     * 首次加载：优先使用快照文件，版本由RbacSnapshotFileStore在后台确认
+     */
+    private synchronized RbacSnapshot loadInitial() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        RbacSnapshotFile file = rbacSnapshotFileStore.getWarmStartFile();
+        if (file == null) {
+            return reload();
+        }
+        RbacSnapshot loaded = new RbacSnapshot(generation.incrementAndGet(), file.getRoles(), file.getPermissions(),
+                file.getRolePermissions());
+        this.snapshot = loaded;
+        logger.info("RBAC快照已从快照文件加载: version={}, changeLogVersion={}, roles={}, permissions={}",
+                loaded.getVersion(), file.getChangeLogVersion(), loaded.getRoleCount(), loaded.getPermissionCount());
+        return loaded;
+    }
+
+    /**
+     * 从数据库重新加载快照
+     */
+    public synchronized RbacSnapshot reload() {
+        // 快照版本号只在本节点内用于识别快照是否被替换，每次加载递增；加载期间若有变更会再次触发重新加载
+        long version = generation.incrementAndGet();
+        List<Role> roles = roleMapper.selectList(null);
+        List<Permission> permissions = permissionMapper.selectList(null);
+        List<RolePermission> rolePermissions = rolePermissionMapper.selectList(null);
+        RbacSnapshot loaded = new RbacSnapshot(version, roles, permissions, rolePermissions);
+        this.snapshot = loaded;
+        logger.info("RBAC快照已加载: version={}, roles={}, permissions={}, rolePermissions={}",
+                version, roles.size(), permissions.size(), rolePermissions.size());
+        return loaded;
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        // 用户角色关系不在快照中，其余变更都需要重新加载
+        if (event.getChangeType() != RbacChangeType.USER_ROLE) {
+            reload();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.System.rbac;
+
+import lombok.Data;
+
+/**
+ * 用户有效授权联表查询结果：一个角色及其权限ID（逗号分隔或JSON数组）
+ */
+@Data
+public class RoleGrantRow {
+
+    private Long userId;
+
+    private Long roleId;
+
+    private String permissionIds;
+}
@@ -0,0 +1,104 @@
+package com.example.System.rbac;
+
+import com.example.System.common.CacheStatsProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 单飞加载
+ * 同一键的并发加载只执行一次数据库查询，其余线程等待并共享结果（包括异常）。加载完成后立即移除，不缓存结果，
+ * 用于缓存失效或未开启缓存时，防止热点用户的并发请求同时打到数据库。
+ * 键由调用方加类型前缀区分，如"grants:1"，加载函数内不能再加载同一键。
+ * 数据变更后调用方需调用forget移除进行中的加载，之后的调用重新加载，不会共享变更前开始的查询结果。
+ */
+@Component
+public class SingleFlight implements CacheStatsProvider {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final LongAdder failureCount = new LongAdder();
+
+    /**
+     * 执行加载，同一键已有加载在进行时等待其结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCount.increment();
+            return (T) await(existing);
+        }
+        loadCount.increment();
+        try {
+            T value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failureCount.increment();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 移除进行中的加载，已在等待的线程仍得到其结果，之后的调用重新加载
+     */
+    public void forget(String key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * 移除指定前缀下所有进行中的加载
+     */
+    public void forgetByPrefix(String prefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 还原加载线程抛出的原始异常，调用方看到的异常与自己加载时一致
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return "singleFlight";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        long loads = loadCount.sum();
+        long coalesced = coalescedCount.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", inFlight.size());
+        result.put("loadCount", loads);
+        result.put("coalescedCount", coalesced);
+        result.put("coalescedRate", loads + coalesced == 0 ? 0.0 : (double) coalesced / (loads + coalesced));
+        result.put("loadFailureCount", failureCount.sum());
+        return result;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.System.rbac;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 用户的有效授权
+ * 基于某个RBAC快照（或联表查询）计算出的角色位图和权限位图，不可变
+ */
+public final class UserGrants {
+
+    /**
+     * 未基于快照计算（直接由联表查询得到）时的快照版本号
+     */
+    public static final long NO_SNAPSHOT = -1L;
+
+    private final Long userId;
+    private final long snapshotVersion;
+    private final long[] directRoleIds;
+    private final long[] roleIds;
+    private final long[] roleBits;
+    private final long[] permissionBits;
+
+    public UserGrants(Long userId, long snapshotVersion, long[] directRoleIds, long[] roleIds,
+                      long[] roleBits, long[] permissionBits) {
+        this.userId = userId;
+        this.snapshotVersion = snapshotVersion;
+        this.directRoleIds = directRoleIds;
+        this.roleIds = roleIds;
+        this.roleBits = roleBits;
+        this.permissionBits = permissionBits;
+    }
+
+    /**
+     * 根据直接分配给用户的角色ID在快照上计算有效授权（含继承的角色）
+     */
+    public static UserGrants of(Long userId, long[] directRoleIds, RbacSnapshot snapshot) {
+        long[] roleIds = snapshot.effectiveRoleIds(directRoleIds);
+        return new UserGrants(userId, snapshot.getVersion(), directRoleIds, roleIds, roleBitsOf(roleIds),
+                snapshot.permissionBitsOfRoles(directRoleIds));
+    }
+
+    /**
+     * 根据联表查询结果构建有效授权
+     */
+    public static UserGrants of(Long userId, List<RoleGrantRow> rows) {
+        long[] roleIds = rows.stream().mapToLong(RoleGrantRow::getRoleId).sorted().distinct().toArray();
+        List<Long> permissionIds = new ArrayList<>();
+        for (RoleGrantRow row : rows) {
+            if (row.getPermissionIds() == null || row.getPermissionIds().isEmpty()) {
+                continue;
+            }
+            // 兼容逗号分隔（PostgreSQL）和JSON数组（MySQL）两种格式，没有权限的角色为null
+            for (String id : row.getPermissionIds().replace("[", "").replace("]", "").split(",")) {
+                String trimmed = id.trim();
+                if (!trimmed.isEmpty() && !"null".equals(trimmed)) {
+                    permissionIds.add(Long.valueOf(trimmed));
+                }
+            }
+        }
+        return new UserGrants(userId, NO_SNAPSHOT, roleIds, roleIds, roleBitsOf(roleIds), PermissionBits.of(permissionIds));
+    }
+
+    /**
+     * 根据批量联表查询结果构建多个用户的有效授权，没有角色的用户也会返回空授权
+     */
+    public static Map<Long, UserGrants> of(Collection<Long> userIds, List<RoleGrantRow> rows) {
+        Map<Long, List<RoleGrantRow>> rowsByUser = rows.stream()
+                .collect(Collectors.groupingBy(RoleGrantRow::getUserId));
+        Map<Long, UserGrants> result = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            result.put(userId, of(userId, rowsByUser.getOrDefault(userId, List.of())));
+        }
+        return result;
+    }
+
+    /**
+     * 快照更新后基于同一组角色重新计算，不查询数据库，已删除的角色被剔除
+     */
+    public UserGrants rebind(RbacSnapshot snapshot) {
+        long[] ids = Arrays.stream(directRoleIds).filter(snapshot::containsRole).toArray();
+        return of(userId, ids, snapshot);
+    }
+
+    /**
+     * 联表查询结果只包含直接授予的角色和权限，按快照中的角色继承和权限蕴含关系展开
+     */
+    public UserGrants expand(RbacSnapshot snapshot) {
+        long[] effectiveRoleIds = snapshot.effectiveRoleIds(directRoleIds);
+        long[] bits = permissionBits;
+        for (long roleId : effectiveRoleIds) {
+            if (Arrays.binarySearch(directRoleIds, roleId) < 0) {
+                bits = PermissionBits.or(bits, snapshot.getRoleDirectPermissionBits(roleId));
+            }
+        }
+        return new UserGrants(userId, snapshotVersion, directRoleIds, effectiveRoleIds, roleBitsOf(effectiveRoleIds),
+                snapshot.expandPermissionBits(bits));
+    }
+
+    /**
+     * 是否拥有任一指定角色
+     */
+    public boolean hasAnyRole(Collection<Long> ids) {
+        for (Long id : ids) {
+            if (id != null && Arrays.binarySearch(roleIds, id) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] roleBitsOf(long[] sortedRoleIds) {
+        int length = sortedRoleIds.length == 0 ? 0 : (int) (sortedRoleIds[sortedRoleIds.length - 1] >>> 6) + 1;
+        long[] bits = new long[length];
+        for (long roleId : sortedRoleIds) {
+            bits[(int) (roleId >>> 6)] |= 1L << roleId;
+        }
+        return bits;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * 计算时使用的快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * 直接分配给用户的角色ID（升序），调用方不得修改
+     */
+    public long[] getDirectRoleIds() {
+        return directRoleIds;
+    }
+
+    /**
+     * 用户的有效角色ID（含继承的角色，升序），调用方不得修改
+     */
+    public long[] getRoleIds() {
+        return roleIds;
+    }
+
+    /**
+     * 角色位图，调用方不得修改
+     */
+    public long[] getRoleBits() {
+        return roleBits;
+    }
+
+    /**
+     * 权限位图，调用方不得修改
+     */
+    public long[] getPermissionBits() {
+        return permissionBits;
+    }
+}
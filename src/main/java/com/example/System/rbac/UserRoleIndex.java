@@ -0,0 +1,260 @@
+package com.example.System.rbac;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户角色反向索引
+ * 内存中按角色保存持有该角色的用户ID（升序long数组），用于"哪些用户拥有某角色/某权限"的查询，避免全表联查。
+ * 首次查询时通过UserRoleScanner流式全量加载user_role，之后按USER_ROLE变更事件只重新加载受影响用户的角色并增量更新；
+ * 按权限查询时由快照找出有效权限包含该权限的角色（已考虑继承和蕴含），再对这些角色的用户集合做有序归并。
+ * 读取使用不可变的角色→用户映射，更新时先按角色汇总新增和移除的用户，每个受影响的角色只归并复制一次后整体替换。
+ */
+@Component
+public class UserRoleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRoleIndex.class);
+
+    @Autowired
+    private UserRoleScanner userRoleScanner;
+
+    /**
+     * 角色ID → 直接持有该角色的用户ID（升序、去重），只整体替换不修改
+     */
+    private volatile Map<Long, long[]> usersByRole;
+
+    /**
+     * 与加载互斥，加载期间提交的变更在加载完成后应用
+     */
+    @EventListener
+    public synchronized void onRbacChanged(RbacChangedEvent event) {
+        if (event.getChangeType() != RbacChangeType.USER_ROLE || usersByRole == null) {
+            return;
+        }
+        if (event.getTargetIds().isEmpty()) {
+            // 无法确定受影响的用户，下次查询时重新加载
+            usersByRole = null;
+        } else {
+            refreshUsers(event.getTargetIds());
+        }
+    }
+
+    /**
+     * 直接持有任一指定角色的用户ID，升序
+     */
+    public long[] getUserIdsByRoles(long[] roleIds) {
+        Map<Long, long[]> index = index();
+        List<long[]> sets = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds) {
+            long[] userIds = index.get(roleId);
+            if (userIds != null) {
+                sets.add(userIds);
+            }
+        }
+        return union(sets);
+    }
+
+    /**
+     * 有效持有该角色的用户ID（直接持有该角色或其任一子角色），升序
+     */
+    public long[] getUserIdsByRole(RbacSnapshot snapshot, long roleId) {
+        List<Long> roleIds = new ArrayList<>();
+        for (Long candidate : index().keySet()) {
+            if (Arrays.binarySearch(snapshot.getInheritedRoleIds(candidate), roleId) >= 0) {
+                roleIds.add(candidate);
+            }
+        }
+        return getUserIdsByRoles(roleIds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * 有效拥有该权限的用户ID（角色继承和权限蕴含均已计入），升序
+     */
+    public long[] getUserIdsByPermission(RbacSnapshot snapshot, long permissionId) {
+        List<Long> roleIds = new ArrayList<>();
+        for (Long candidate : index().keySet()) {
+            if (PermissionBits.test(snapshot.getRolePermissionBits(candidate), permissionId)) {
+                roleIds.add(candidate);
+            }
+        }
+        return getUserIdsByRoles(roleIds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private Map<Long, long[]> index() {
+        Map<Long, long[]> index = usersByRole;
+        return index != null ? index : load();
+    }
+
+    private synchronized Map<Long, long[]> load() {
+        if (usersByRole == null) {
+            rebuild();
+        }
+        return usersByRole;
+    }
+
+    /**
+     * 流式全量加载user_role，用户按ID升序到达，各角色的用户数组无需再排序
+     */
+    public synchronized void rebuild() {
+        Map<Long, LongList> users = new HashMap<>();
+        userRoleScanner.scanAll((userId, roleIds) -> {
+            for (long roleId : roleIds) {
+                users.computeIfAbsent(roleId, k -> new LongList()).add(userId);
+            }
+        });
+        Map<Long, long[]> index = new HashMap<>(users.size() * 2);
+        users.forEach((roleId, userIds) -> index.put(roleId, userIds.toArray()));
+        usersByRole = Collections.unmodifiableMap(index);
+        logger.info("用户角色反向索引加载完成: roles={}", index.size());
+    }
+
+    /**
+     * 重新加载指定用户的角色并更新索引
+     */
+    private void refreshUsers(Collection<Long> userIds) {
+        usersByRole = Collections.unmodifiableMap(applyUserRoles(usersByRole, userRoleScanner.load(userIds)));
+    }
+
+    /**
+     * 按用户的最新直接角色更新索引，返回新的映射，未受影响的角色数组原样复用。
+     * 先按角色汇总新增和移除的用户，每个角色只归并一次
+     */
+    static Map<Long, long[]> applyUserRoles(Map<Long, long[]> index, Map<Long, long[]> roleIdsByUser) {
+        Map<Long, LongList> added = new HashMap<>();
+        Map<Long, LongList> removed = new HashMap<>();
+        for (Map.Entry<Long, long[]> entry : roleIdsByUser.entrySet()) {
+            long userId = entry.getKey();
+            long[] after = entry.getValue();
+            // 不保存用户→角色的正向映射，角色数很少，直接在各角色的用户数组中查找
+            for (Map.Entry<Long, long[]> role : index.entrySet()) {
+                boolean had = Arrays.binarySearch(role.getValue(), userId) >= 0;
+                boolean has = Arrays.binarySearch(after, role.getKey()) >= 0;
+                if (had && !has) {
+                    removed.computeIfAbsent(role.getKey(), k -> new LongList()).add(userId);
+                }
+            }
+            for (long roleId : after) {
+                long[] existing = index.get(roleId);
+                if (existing == null || Arrays.binarySearch(existing, userId) < 0) {
+                    added.computeIfAbsent(roleId, k -> new LongList()).add(userId);
+                }
+            }
+        }
+        Map<Long, long[]> result = new HashMap<>(index);
+        Set<Long> changedRoles = new HashSet<>(added.keySet());
+        changedRoles.addAll(removed.keySet());
+        for (Long roleId : changedRoles) {
+            long[] merged = difference(
+                    union(result.getOrDefault(roleId, new long[0]), sorted(added.get(roleId))),
+                    sorted(removed.get(roleId)));
+            if (merged.length == 0) {
+                result.remove(roleId);
+            } else {
+                result.put(roleId, merged);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 多个升序数组的并集，结果升序去重
+     */
+    static long[] union(List<long[]> sets) {
+        if (sets.isEmpty()) {
+            return new long[0];
+        }
+        long[] result = sets.get(0);
+        for (int i = 1; i < sets.size(); i++) {
+            result = union(result, sets.get(i));
+        }
+        return result;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] result = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[size++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[size++] = b[j++];
+            } else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[size++] = a[i++];
+        }
+        while (j < b.length) {
+            result[size++] = b[j++];
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * 升序数组a中去掉升序数组b包含的元素
+     */
+    private static long[] difference(long[] a, long[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        long[] result = new long[a.length];
+        int j = 0;
+        int size = 0;
+        for (long value : a) {
+            while (j < b.length && b[j] < value) {
+                j++;
+            }
+            if (j >= b.length || b[j] != value) {
+                result[size++] = value;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static long[] sorted(LongList values) {
+        if (values == null) {
+            return new long[0];
+        }
+        long[] result = values.toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * 可增长的long数组，避免加载时装箱
+     */
+    private static final class LongList {
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
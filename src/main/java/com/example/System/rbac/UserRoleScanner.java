@@ -0,0 +1,110 @@
+package com.example.System.rbac;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户角色关系读取器
+ * 直接通过JDBC流式读取user_role，不创建实体对象，供堆外存储和快照文件在用户数很多时全量加载。
+ */
+@Component
+public class UserRoleScanner {
+
+    /**
+     * 批量查询时IN列表的最大长度
+     */
+    private static final int BATCH_QUERY_SIZE = 1000;
+
+    /**
+     * 全量读取时每次从数据库拉取的行数
+     */
+    private static final int FETCH_SIZE = 10000;
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT user_id, role_id FROM user_role WHERE deleted = 0 ORDER BY user_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 按用户ID升序处理每个用户的直接角色
+     */
+    @FunctionalInterface
+    public interface UserRolesHandler {
+        void handle(long userId, long[] roleIds);
+    }
+
+    /**
+     * 按用户ID升序流式读取全部用户角色关系，每个用户回调一次，角色ID升序去重
+     */
+    public void scanAll(UserRolesHandler handler) {
+        long[] current = {Long.MIN_VALUE};
+        List<Long> roleIds = new ArrayList<>();
+        // PostgreSQL只在事务中按fetchSize分批读取，MySQL需要Integer.MIN_VALUE开启流式结果集
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                (Connection connection) -> {
+                    PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL);
+                    boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+                    statement.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE);
+                    return statement;
+                },
+                resultSet -> {
+                    long userId = resultSet.getLong(1);
+                    if (userId != current[0]) {
+                        if (!roleIds.isEmpty()) {
+                            handler.handle(current[0], sortedDistinct(roleIds));
+                            roleIds.clear();
+                        }
+                        current[0] = userId;
+                    }
+                    roleIds.add(resultSet.getLong(2));
+                }));
+        if (!roleIds.isEmpty()) {
+            handler.handle(current[0], sortedDistinct(roleIds));
+        }
+    }
+
+    /**
+     * 读取指定用户的直接角色，没有角色的用户对应空数组
+     */
+    public Map<Long, long[]> load(Collection<Long> userIds) {
+        Map<Long, List<Long>> roleIdsByUser = new HashMap<>();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        for (int from = 0; from < ids.size(); from += BATCH_QUERY_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_QUERY_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT user_id, role_id FROM user_role WHERE deleted = 0 AND user_id IN (" + placeholders + ")",
+                    resultSet -> {
+                        roleIdsByUser.computeIfAbsent(resultSet.getLong(1), k -> new ArrayList<>()).add(resultSet.getLong(2));
+                    },
+                    chunk.toArray());
+        }
+        Map<Long, long[]> result = new HashMap<>(ids.size() * 2);
+        for (Long userId : ids) {
+            result.put(userId, sortedDistinct(roleIdsByUser.getOrDefault(userId, List.of())));
+        }
+        return result;
+    }
+
+    private static long[] sortedDistinct(Collection<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+}
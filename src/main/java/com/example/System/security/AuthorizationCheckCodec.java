@@ -0,0 +1,129 @@
+package com.example.System.security;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.dto.AuthorizationCheck;
+import com.example.System.exception.BusinessException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量鉴权的二进制编码（大端序）
+ * 请求：int条数，每条依次为 byte标志位（bit0为1时携带令牌否则为用户ID，bit1为1时ALL否则ANY）、
+ * 令牌（int长度+UTF-8）或用户ID（long）、short角色数及各角色代码、short权限数及各权限代码（均为short长度+UTF-8）。
+ * 响应：int条数，之后每条一个字节的判定结果。
+ */
+public final class AuthorizationCheckCodec {
+
+    private static final int FLAG_TOKEN = 1;
+
+    private static final int FLAG_ALL = 1 << 1;
+
+    private AuthorizationCheckCodec() {
+    }
+
+    public static List<AuthorizationCheck> decode(byte[] body, int maxCount) {
+        ByteBuffer in = ByteBuffer.wrap(body);
+        try {
+            int count = in.getInt();
+            if (count < 0 || count > maxCount) {
+                throw BusinessException.paramInvalid("检查条数必须在0到" + maxCount + "之间");
+            }
+            List<AuthorizationCheck> checks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                AuthorizationCheck check = new AuthorizationCheck();
+                int flags = in.get();
+                if ((flags & FLAG_TOKEN) != 0) {
+                    check.setToken(readString(in, in.getInt()));
+                } else {
+                    check.setUserId(in.getLong());
+                }
+                check.setLogical((flags & FLAG_ALL) != 0 ? RequirePermission.Logical.ALL : RequirePermission.Logical.ANY);
+                check.setRoles(readStrings(in));
+                check.setPermissions(readStrings(in));
+                checks.add(check);
+            }
+            if (in.hasRemaining()) {
+                throw BusinessException.paramInvalid("请求体长度与检查条数不符");
+            }
+            return checks;
+        } catch (BufferUnderflowException e) {
+            throw BusinessException.paramInvalid("请求体不完整");
+        }
+    }
+
+    public static byte[] encode(List<AuthorizationCheck> checks) {
+        List<byte[]> parts = new ArrayList<>();
+        int size = 4;
+        for (AuthorizationCheck check : checks) {
+            byte[] token = check.getToken() == null ? null : check.getToken().getBytes(StandardCharsets.UTF_8);
+            size += 1 + (token == null ? 8 : 4 + token.length) + stringsSize(check.getRoles()) + stringsSize(check.getPermissions());
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(checks.size());
+        for (AuthorizationCheck check : checks) {
+            int flags = (check.getToken() != null ? FLAG_TOKEN : 0)
+                    | (check.getLogical() == RequirePermission.Logical.ALL ? FLAG_ALL : 0);
+            out.put((byte) flags);
+            if (check.getToken() != null) {
+                byte[] token = check.getToken().getBytes(StandardCharsets.UTF_8);
+                out.putInt(token.length);
+                out.put(token);
+            } else {
+                out.putLong(check.getUserId());
+            }
+            writeStrings(out, check.getRoles());
+            writeStrings(out, check.getPermissions());
+        }
+        return out.array();
+    }
+
+    public static byte[] encodeResults(byte[] decisions) {
+        return ByteBuffer.allocate(4 + decisions.length).putInt(decisions.length).put(decisions).array();
+    }
+
+    public static byte[] decodeResults(byte[] body) {
+        ByteBuffer in = ByteBuffer.wrap(body);
+        byte[] decisions = new byte[in.getInt()];
+        in.get(decisions);
+        return decisions;
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int count = in.getShort() & 0xffff;
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in, in.getShort() & 0xffff));
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer in, int length) {
+        if (length < 0 || length > in.remaining()) {
+            throw BusinessException.paramInvalid("请求体不完整");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int stringsSize(List<String> values) {
+        int size = 2;
+        for (String value : values) {
+            size += 2 + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+
+    private static void writeStrings(ByteBuffer out, List<String> values) {
+        out.putShort((short) values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) bytes.length);
+            out.put(bytes);
+        }
+    }
+}
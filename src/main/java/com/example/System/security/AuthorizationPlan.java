@@ -0,0 +1,114 @@
+package com.example.System.security;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshot;
+
+/**
+ * 预编译的接口鉴权计划
+ * 由RequirePermission注解编译而来，角色和权限代码已转换为ID位图，
+ * 鉴权时只做位运算，不再反射读取注解，也不分配对象。
+ * 计划与编译时的RBAC快照版本绑定，快照更新后重新编译。
+ */
+public final class AuthorizationPlan {
+
+    /**
+     * 无需鉴权的接口
+     */
+    public static final AuthorizationPlan NONE = new AuthorizationPlan(-1L, false,
+            PermissionBits.EMPTY, false, PermissionBits.EMPTY, false, true, RequirePermission.Logical.ANY);
+
+    private final long snapshotVersion;
+    private final boolean protectedEndpoint;
+    private final long[] roleMask;
+    private final boolean rolesRequired;
+    private final long[] permissionMask;
+    private final boolean permissionsRequired;
+    private final boolean allPermissionsKnown;
+    private final RequirePermission.Logical logical;
+
+    private AuthorizationPlan(long snapshotVersion, boolean protectedEndpoint, long[] roleMask, boolean rolesRequired,
+                              long[] permissionMask, boolean permissionsRequired, boolean allPermissionsKnown,
+                              RequirePermission.Logical logical) {
+        this.snapshotVersion = snapshotVersion;
+        this.protectedEndpoint = protectedEndpoint;
+        this.roleMask = roleMask;
+        this.rolesRequired = rolesRequired;
+        this.permissionMask = permissionMask;
+        this.permissionsRequired = permissionsRequired;
+        this.allPermissionsKnown = allPermissionsKnown;
+        this.logical = logical;
+    }
+
+    /**
+     * 根据注解和RBAC快照编译鉴权计划
+     */
+    public static AuthorizationPlan compile(RequirePermission requirePermission, RbacSnapshot snapshot) {
+        if (requirePermission == null) {
+            return NONE;
+        }
+        return compile(requirePermission.roles(), requirePermission.value(), requirePermission.logical(), snapshot);
+    }
+
+    /**
+     * 根据角色代码、权限代码和校验模式编译鉴权计划
+     */
+    public static AuthorizationPlan compile(String[] roleCodes, String[] permissionCodes,
+                                            RequirePermission.Logical logical, RbacSnapshot snapshot) {
+        return new AuthorizationPlan(snapshot.getVersion(), true,
+                snapshot.roleMask(roleCodes), roleCodes.length > 0,
+                snapshot.permissionMask(permissionCodes), permissionCodes.length > 0,
+                snapshot.containsAllPermissionCodes(permissionCodes), logical);
+    }
+
+    /**
+     * 编译时的RBAC快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * 接口是否需要登录
+     */
+    public boolean isProtected() {
+        return protectedEndpoint;
+    }
+
+    public boolean requiresRoles() {
+        return rolesRequired;
+    }
+
+    public boolean requiresPermissions() {
+        return permissionsRequired;
+    }
+
+    /**
+     * 角色和权限都满足时通过，与拦截器的判定一致
+     */
+    public boolean matches(long[] roleBits, long[] permissionBits) {
+        return matchesRoles(roleBits) && matchesPermissions(permissionBits);
+    }
+
+    /**
+     * 拥有任一所需角色即满足
+     */
+    public boolean matchesRoles(long[] roleBits) {
+        return !rolesRequired || PermissionBits.containsAny(roleBits, roleMask);
+    }
+
+    /**
+     * 按ANY/ALL模式校验权限
+     */
+    public boolean matchesPermissions(long[] permissionBits) {
+        if (!permissionsRequired) {
+            return true;
+        }
+        if (logical == RequirePermission.Logical.ALL) {
+            // 需要满足所有权限，存在未知权限代码时必然不满足
+            return allPermissionsKnown && PermissionBits.containsAll(permissionBits, permissionMask);
+        }
+        // 满足任一权限即可
+        return PermissionBits.containsAny(permissionBits, permissionMask);
+    }
+}
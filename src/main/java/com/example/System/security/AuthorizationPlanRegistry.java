@@ -0,0 +1,101 @@
+package com.example.System.security;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 鉴权计划注册表
+ * 启动时为所有接口方法解析RequirePermission注解，之后按需（RBAC快照版本变化时）重新编译鉴权计划
+ */
+@Component
+public class AuthorizationPlanRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationPlanRegistry.class);
+
+    private final Map<Method, PlanHolder> holders = new ConcurrentHashMap<>();
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    /**
+     * 启动完成后预编译所有接口的鉴权计划
+     * 拦截器先于HandlerMapping创建，因此在启动完成后再从容器中获取HandlerMapping
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompile(ApplicationReadyEvent event) {
+        try {
+            RequestMappingHandlerMapping handlerMapping = event.getApplicationContext()
+                    .getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+            RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+            for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+                holderOf(handlerMethod.getMethod()).planFor(snapshot);
+            }
+            logger.info("接口鉴权计划预编译完成: {}个接口", holders.size());
+        } catch (Exception e) {
+            // 数据库未就绪时跳过预编译，首次请求时再编译
+            logger.warn("预编译接口鉴权计划失败，将在首次请求时编译: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取接口方法当前有效的鉴权计划
+     */
+    public AuthorizationPlan getPlan(HandlerMethod handlerMethod) {
+        PlanHolder holder = holderOf(handlerMethod.getMethod());
+        if (holder.annotation == null) {
+            return AuthorizationPlan.NONE;
+        }
+        return holder.planFor(rbacSnapshotManager.getSnapshot());
+    }
+
+    private PlanHolder holderOf(Method method) {
+        PlanHolder holder = holders.get(method);
+        if (holder == null) {
+            holder = holders.computeIfAbsent(method, PlanHolder::new);
+        }
+        return holder;
+    }
+
+    /**
+     * 单个接口方法的注解和已编译计划
+     */
+    private static final class PlanHolder {
+
+        private final RequirePermission annotation;
+        private volatile AuthorizationPlan plan;
+
+        PlanHolder(Method method) {
+            // 方法上的注解优先于类上的注解
+            RequirePermission requirePermission = method.getAnnotation(RequirePermission.class);
+            if (requirePermission == null) {
+                requirePermission = method.getDeclaringClass().getAnnotation(RequirePermission.class);
+            }
+            this.annotation = requirePermission;
+        }
+
+        AuthorizationPlan planFor(RbacSnapshot snapshot) {
+            if (annotation == null) {
+                return AuthorizationPlan.NONE;
+            }
+            AuthorizationPlan current = plan;
+            if (current == null || current.getSnapshotVersion() != snapshot.getVersion()) {
+                current = AuthorizationPlan.compile(annotation, snapshot);
+                plan = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.System.security;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 请求级记忆化
+ * 同一请求内对同一用户的授权、角色和权限只解析一次，拦截器、服务和控制器共享结果，不依赖全局缓存是否开启。
+ * 令牌身份由TokenContext保存，这里只保存由身份派生的数据。不在请求线程中时直接计算，不做缓存。
+ */
+public final class RequestMemo {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestMemo.class.getName();
+
+    private RequestMemo() {
+    }
+
+    /**
+     * 获取当前请求中已记录的结果，不存在时计算并记录；计算结果为null时不记录
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T computeIfAbsent(String key, Supplier<T> loader) {
+        Map<String, Object> memo = current(true);
+        if (memo == null) {
+            return loader.get();
+        }
+        Object value = memo.get(key);
+        if (value == null) {
+            value = loader.get();
+            if (value != null) {
+                memo.put(key, value);
+            }
+        }
+        return (T) value;
+    }
+
+    /**
+     * 清空当前请求的记录，本请求内修改了RBAC数据后调用，避免读到修改前的结果
+     */
+    public static void clear() {
+        Map<String, Object> memo = current(false);
+        if (memo != null) {
+            memo.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> current(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, Object> memo = (Map<String, Object>) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null && create) {
+            // 请求由单个线程处理，不需要并发容器
+            memo = new HashMap<>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.System.security;
+
+/**
+ * JWT声明名称
+ */
+public final class TokenClaims {
+
+    /**
+     * 用户ID
+     */
+    public static final String USER_ID = "userId";
+
+    /**
+     * 用户表中的角色字段
+     */
+    public static final String ROLE = "role";
+
+    /**
+     * RBAC角色位图，以角色ID为位下标的Base64URL编码
+     */
+    public static final String ROLE_BITS = "rbm";
+
+    /**
+     * 权限代码，逗号分隔（旧版令牌）
+     */
+    public static final String PERMISSIONS = "permissions";
+
+    /**
+     * 权限位图，以权限ID为位下标的Base64URL编码
+     */
+    public static final String PERMISSION_BITS = "pbm";
+
+    /**
+     * 签发时的RBAC版本号
+     */
+    public static final String RBAC_VERSION = "rv";
+
+    /**
+     * 签发时用户的令牌纪元，小于用户当前纪元的令牌已被吊销
+     */
+    public static final String TOKEN_EPOCH = "tep";
+
+    private TokenClaims() {
+    }
+}
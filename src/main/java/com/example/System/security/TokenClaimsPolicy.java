@@ -0,0 +1,40 @@
+package com.example.System.security;
+
+import com.example.System.service.RbacVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 令牌授权声明的信任策略
+ * 无状态模式下，令牌携带授权声明且RBAC版本号未变化时才信任令牌中的角色和权限，
+ * 否则说明签发后角色或权限发生过变更，回退到用户授权缓存。本节点有变更未能写入变更日志（版本号未推进）时，
+ * 在此之前签发的令牌同样不再可信。拦截器和批量鉴权共用，保证判定一致。
+ */
+@Component
+public class TokenClaimsPolicy {
+
+    /**
+     * 无状态鉴权模式：令牌中的RBAC版本号与当前一致时，直接使用令牌中的角色和权限声明
+     */
+    private static final String AUTH_MODE_STATELESS = "stateless";
+
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Value("${app.security.auth-mode:database}")
+    private String authMode;
+
+    public boolean isTrusted(VerifiedToken verifiedToken) {
+        if (!AUTH_MODE_STATELESS.equalsIgnoreCase(authMode) || !verifiedToken.hasAuthorizationClaims()) {
+            return false;
+        }
+        if (verifiedToken.getRbacVersion() != rbacVersionService.getCurrentVersion()) {
+            return false;
+        }
+        long untrackedChangeTime = rbacVersionService.getUntrackedChangeTime();
+        // iat精确到秒，同一秒内签发的令牌也视为变更前签发
+        return untrackedChangeTime == 0L
+                || (verifiedToken.getIssuedAt() != null && verifiedToken.getIssuedAt().getTime() > untrackedChangeTime);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.System.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 请求级令牌上下文
+ * 拦截器验签后把VerifiedToken放入请求属性，同一请求内的其他组件通过这里读取，避免重复解析
+ */
+public final class TokenContext {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private TokenContext() {
+    }
+
+    /**
+     * 获取当前请求的已验签令牌，未登录或不在请求线程中时返回null
+     */
+    public static VerifiedToken current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (VerifiedToken) attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * 获取当前请求的用户ID
+     */
+    public static Long currentUserId() {
+        VerifiedToken token = current();
+        return token == null ? null : token.getUserId();
+    }
+
+    /**
+     * 获取指定请求的已验签令牌
+     */
+    public static VerifiedToken get(HttpServletRequest request) {
+        return (VerifiedToken) request.getAttribute(REQUEST_ATTRIBUTE);
+    }
+
+    /**
+     * 绑定已验签令牌到请求
+     */
+    public static void set(HttpServletRequest request, VerifiedToken token) {
+        request.setAttribute(REQUEST_ATTRIBUTE, token);
+    }
+
+    /**
+     * 从Authorization请求头中提取Bearer令牌，不存在时返回null
+     */
+    public static String resolveBearerToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length());
+    }
+}
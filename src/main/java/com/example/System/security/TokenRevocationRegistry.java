@@ -0,0 +1,324 @@
+package com.example.System.security;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.System.common.CacheStatsProvider;
+import com.example.System.entity.TokenRevocation;
+import com.example.System.mapper.TokenRevocationMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 令牌吊销表的内存副本
+ * 被吊销的jti放入布隆过滤器和精确集合：绝大多数令牌在过滤器处即可判定未吊销，命中时再查精确集合排除误判；
+ * 用户的令牌纪元保存在用户ID到最小有效纪元的映射中。各节点定时按ID增量拉取token_revocation，
+ * 鉴权时只读内存，不产生SQL。本节点的吊销提交后立即生效，其他节点在一个拉取周期内生效。
+ * ID空洞（其他节点的事务尚未提交）之后的记录先行应用，空洞处在gap-timeout内重复拉取。
+ * 记录过了expire_time后受影响的令牌已自然过期，定时清理并全量重建，布隆过滤器随之缩小。
+ * 启动完成时全量加载；加载成功前默认拒绝所有令牌（fail-closed），避免重启或吊销表不可用时已吊销的令牌重新生效。
+ */
+@Component
+public class TokenRevocationRegistry implements CacheStatsProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    @Autowired
+    private TokenRevocationMapper tokenRevocationMapper;
+
+    @Value("${app.security.revocation.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 吊销数据加载成功前是否拒绝所有令牌
+     */
+    @Value("${app.security.revocation.fail-closed:true}")
+    private boolean failClosed;
+
+    @Value("${app.security.revocation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.security.revocation.gap-timeout:5000}")
+    private long gapTimeoutMillis;
+
+    @Value("${app.security.revocation.bloom.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${app.security.revocation.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    /**
+     * 当前生效的吊销数据，全量重建时整体替换
+     */
+    private volatile State state;
+
+    private final LongAdder revokedHits = new LongAdder();
+
+    /**
+     * 已连续应用的最大记录ID
+     */
+    private long lastId;
+
+    private boolean loaded;
+
+    /**
+     * 应用是否已启动完成（数据库表已初始化）
+     */
+    private volatile boolean started;
+
+    /**
+     * 最近一次拉取是否失败，只在状态变化时记录日志
+     */
+    private boolean syncFailing;
+
+    private long gapSince;
+
+    private long lastReloadTime;
+
+    /**
+     * 令牌是否应视为已吊销：jti在吊销集合中，或签发时的纪元小于用户当前纪元；
+     * 吊销数据尚未加载成功时按fail-closed配置全部拒绝或全部放行
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        if (!enabled) {
+            return false;
+        }
+        State current = state;
+        if (current == null) {
+            return failClosed;
+        }
+        Long epoch = token.getUserId() == null ? null : current.epochs.get(token.getUserId());
+        String tokenId = token.getTokenId();
+        boolean revoked = (epoch != null && token.getTokenEpoch() < epoch)
+                || (tokenId != null && current.bloomFilter.mightContain(tokenId) && current.tokenIds.contains(tokenId));
+        if (revoked) {
+            revokedHits.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * 应用一条吊销记录，本节点写入的记录提交后立即调用
+     */
+    public synchronized void apply(TokenRevocation revocation) {
+        if (state != null) {
+            state.apply(revocation);
+        }
+    }
+
+    /**
+     * 启动完成后全量加载，此时数据库表已完成初始化
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        started = true;
+        try {
+            reload();
+        } catch (Exception e) {
+            syncFailing = true;
+            logger.error("加载令牌吊销记录失败，{}，稍后重试", failClosed ? "加载成功前拒绝所有令牌" : "加载成功前已吊销的令牌仍可使用", e);
+        }
+    }
+
+    /**
+     * 拉取新增的吊销记录，启动时加载失败则继续重试全量加载
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval:1000}")
+    public synchronized void poll() {
+        if (!enabled || !started) {
+            return;
+        }
+        try {
+            if (!loaded) {
+                reload();
+                syncRecovered();
+                return;
+            }
+            QueryWrapper<TokenRevocation> queryWrapper = new QueryWrapper<>();
+            queryWrapper.gt("id", lastId).orderByAsc("id").last("LIMIT " + batchSize);
+            boolean contiguous = true;
+            for (TokenRevocation revocation : tokenRevocationMapper.selectList(queryWrapper)) {
+                state.apply(revocation);
+                if (contiguous && (revocation.getId() == lastId + 1 || gapExpired())) {
+                    lastId = revocation.getId();
+                    gapSince = 0L;
+                } else {
+                    contiguous = false;
+                }
+            }
+            syncRecovered();
+        } catch (Exception e) {
+            // 数据库暂时不可用时保留已加载的数据，下次再试
+            if (!syncFailing) {
+                syncFailing = true;
+                logger.warn("拉取令牌吊销记录失败，其他节点的吊销暂不生效: {}", e.getMessage());
+            } else {
+                logger.debug("拉取令牌吊销记录失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理已失效的吊销记录并全量重建
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.cleanup-interval:3600000}", initialDelay = 60000)
+    public synchronized void cleanup() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        try {
+            QueryWrapper<TokenRevocation> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lt("expire_time", LocalDateTime.now());
+            int deleted = tokenRevocationMapper.delete(queryWrapper);
+            if (deleted > 0) {
+                logger.info("已清理{}条失效的令牌吊销记录", deleted);
+            }
+            reload();
+        } catch (Exception e) {
+            logger.warn("清理令牌吊销记录失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String getCacheName() {
+        return "tokenRevocation";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        State current = state;
+        stats.put("enabled", enabled);
+        stats.put("failClosed", failClosed);
+        stats.put("loaded", current != null);
+        stats.put("syncFailing", syncFailing);
+        if (current != null) {
+            BloomFilter bloomFilter = current.bloomFilter;
+            stats.put("revokedTokens", current.tokenIds.size());
+            stats.put("usersWithEpoch", current.epochs.size());
+            stats.put("bloomBits", bloomFilter.bitCount());
+            stats.put("bloomHashes", bloomFilter.hashCount());
+            stats.put("bloomExpectedInsertions", bloomFilter.expectedInsertions());
+        }
+        stats.put("revokedHits", revokedHits.sum());
+        stats.put("lastId", lastId);
+        stats.put("lastReloadTime", lastReloadTime);
+        return stats;
+    }
+
+    /**
+     * 读取全部未失效的记录构建新数据后替换，期间本节点的吊销在锁外等待，替换后应用到新数据上。
+     * 拉取起点只推进到连续的ID：首次加载时为最近的ID中第一个空洞之前，之后重建时保持原有位置，
+     * 空洞处可能是其他节点尚未提交的吊销，由poll()继续等待
+     */
+    private void reload() {
+        Long maxId = tokenRevocationMapper.selectMaxId();
+        long top = maxId == null ? 0L : maxId;
+        QueryWrapper<TokenRevocation> queryWrapper = new QueryWrapper<>();
+        queryWrapper.le("id", top).gt("expire_time", LocalDateTime.now());
+        List<TokenRevocation> revocations = tokenRevocationMapper.selectList(queryWrapper);
+        State fresh = new State(Math.max(expectedInsertions, revocations.size() * 2));
+        revocations.forEach(fresh::apply);
+        if (!loaded) {
+            lastId = contiguousTail(top);
+            gapSince = 0L;
+        }
+        state = fresh;
+        lastReloadTime = System.currentTimeMillis();
+        if (!loaded) {
+            loaded = true;
+            logger.info("令牌吊销同步已启动: revokedTokens={}, usersWithEpoch={}, lastId={}, maxId={}",
+                    fresh.tokenIds.size(), fresh.epochs.size(), lastId, top);
+        }
+    }
+
+    /**
+     * 最近batchSize个ID中第一个空洞之前的ID，更早的记录视为已提交
+     */
+    private long contiguousTail(long top) {
+        long expected = Math.max(0L, top - batchSize) + 1;
+        QueryWrapper<TokenRevocation> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id").ge("id", expected).le("id", top).orderByAsc("id");
+        for (TokenRevocation revocation : tokenRevocationMapper.selectList(queryWrapper)) {
+            if (revocation.getId() != expected) {
+                break;
+            }
+            expected++;
+        }
+        return expected - 1;
+    }
+
+    private void syncRecovered() {
+        if (syncFailing) {
+            syncFailing = false;
+            logger.info("令牌吊销同步已恢复: lastId={}", lastId);
+        }
+    }
+
+    /**
+     * ID空洞是否已等待超时
+     */
+    private boolean gapExpired() {
+        long now = System.currentTimeMillis();
+        if (gapSince == 0L) {
+            gapSince = now;
+        }
+        if (now - gapSince < gapTimeoutMillis) {
+            return false;
+        }
+        logger.warn("令牌吊销记录ID空洞等待超时，跳过: after={}", lastId);
+        return true;
+    }
+
+    /**
+     * 吊销数据，由外层锁保证写入串行；读取不加锁
+     */
+    private final class State {
+
+        private volatile BloomFilter bloomFilter;
+
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        /**
+         * 用户ID到最小有效纪元
+         */
+        private final Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+        private State(int capacity) {
+            this.bloomFilter = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        private void apply(TokenRevocation revocation) {
+            if (revocation.getJti() != null) {
+                if (!tokenIds.add(revocation.getJti())) {
+                    return;
+                }
+                if (tokenIds.size() > bloomFilter.expectedInsertions()) {
+                    // 超出预期容量后误判率上升，按两倍容量重建
+                    BloomFilter grown = new BloomFilter(bloomFilter.expectedInsertions() * 2, falsePositiveRate);
+                    tokenIds.forEach(grown::put);
+                    bloomFilter = grown;
+                } else {
+                    bloomFilter.put(revocation.getJti());
+                }
+            } else if (revocation.getTokenEpoch() != null && revocation.getUserId() != null) {
+                epochs.merge(revocation.getUserId(), revocation.getTokenEpoch(), Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.System.security;
+
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * URL鉴权规则注册表
+ * 持有由当前RBAC快照编译的URL权限路径树，快照版本变化（权限增删改）后首次使用时重新编译
+ */
+@Component
+public class UrlAuthorizationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlAuthorizationRegistry.class);
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    private volatile UrlPermissionTrie trie;
+
+    /**
+     * 查找请求对应的权限位图，拥有其中任一权限即可访问；没有规则覆盖该请求时返回null
+     */
+    public long[] match(HttpServletRequest request) {
+        return getTrie().match(request.getMethod(), lookupPath(request));
+    }
+
+    /**
+     * 与请求映射一致的路径：去掉上下文路径和分号参数并解码，避免/user/list;x=1或/%75ser/list绕过规则
+     */
+    static String lookupPath(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+    }
+
+    /**
+     * 获取与当前快照一致的路径树
+     */
+    public UrlPermissionTrie getTrie() {
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        UrlPermissionTrie current = trie;
+        if (current == null || current.getSnapshotVersion() != snapshot.getVersion()) {
+            current = compile(snapshot);
+        }
+        return current;
+    }
+
+    private synchronized UrlPermissionTrie compile(RbacSnapshot snapshot) {
+        UrlPermissionTrie current = trie;
+        if (current != null && current.getSnapshotVersion() == snapshot.getVersion()) {
+            return current;
+        }
+        current = UrlPermissionTrie.compile(snapshot);
+        trie = current;
+        logger.info("URL鉴权规则编译完成: version={}, rules={}", snapshot.getVersion(), current.getRuleCount());
+        return current;
+    }
+}
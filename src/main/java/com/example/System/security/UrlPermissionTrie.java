@@ -0,0 +1,195 @@
+package com.example.System.security;
+
+import com.example.System.entity.Permission;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * URL权限路径树
+ * 由快照中各权限的resource_url和request_method编译而成，按"/"分段建树，查找时间与路径段数成正比，与规则数量无关。
+ * 支持的模式：字面量段、"*"或"{name}"匹配单段、末尾的"**"匹配任意层级（含零层）。
+ * 多条规则命中时取最具体的：字面量优先于单段通配，单段通配优先于"**"，同一节点上指定方法的规则优先于不限方法的规则。
+ * HEAD请求没有对应规则时使用GET规则，与Spring MVC的路由一致。
+ * 同一模式和方法对应多个权限时，拥有其中任一权限即可访问。实例不可变，随快照版本重新编译。
+ */
+public final class UrlPermissionTrie {
+
+    private static final Logger logger = LoggerFactory.getLogger(UrlPermissionTrie.class);
+
+    /**
+     * 不限请求方法的规则键
+     */
+    private static final String ANY_METHOD = "*";
+
+    private final long snapshotVersion;
+
+    private final Node root;
+
+    private final int ruleCount;
+
+    private UrlPermissionTrie(long snapshotVersion, Node root, int ruleCount) {
+        this.snapshotVersion = snapshotVersion;
+        this.root = root;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * 编译快照中所有配置了resource_url的权限，不支持的模式记录警告后忽略
+     */
+    public static UrlPermissionTrie compile(RbacSnapshot snapshot) {
+        return compile(snapshot.getVersion(), snapshot.getPermissions());
+    }
+
+    static UrlPermissionTrie compile(long snapshotVersion, List<Permission> permissions) {
+        Node root = new Node();
+        int ruleCount = 0;
+        for (Permission permission : permissions) {
+            String url = permission.getResourceUrl();
+            if (url == null || url.isBlank()) {
+                continue;
+            }
+            String[] segments = split(url.trim());
+            Node node = root;
+            boolean catchAll = false;
+            boolean supported = true;
+            for (int i = 0; i < segments.length && supported; i++) {
+                String segment = segments[i];
+                if ("**".equals(segment)) {
+                    catchAll = true;
+                    supported = i == segments.length - 1;
+                } else if ("*".equals(segment) || (segment.startsWith("{") && segment.endsWith("}"))) {
+                    node = node.wildcardChild();
+                } else if (segment.contains("*")) {
+                    supported = false;
+                } else {
+                    node = node.literalChild(segment);
+                }
+            }
+            if (!supported) {
+                logger.warn("不支持的资源URL模式，已忽略: permission={}, url={}", permission.getPermissionCode(), url);
+                continue;
+            }
+            long[] bits = PermissionBits.of(List.of(permission.getId()));
+            if (catchAll) {
+                node.catchAllRules = merge(node.catchAllRules, permission.getRequestMethod(), bits);
+            } else {
+                node.exactRules = merge(node.exactRules, permission.getRequestMethod(), bits);
+            }
+            ruleCount++;
+        }
+        return new UrlPermissionTrie(snapshotVersion, root, ruleCount);
+    }
+
+    /**
+     * 查找请求对应的权限位图，拥有其中任一权限即可访问；没有规则覆盖该请求时返回null
+     */
+    public long[] match(String method, String path) {
+        if (ruleCount == 0) {
+            return null;
+        }
+        return match(root, split(path), 0, method.toUpperCase(Locale.ROOT));
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    private static long[] match(Node node, String[] segments, int index, String method) {
+        if (index == segments.length) {
+            long[] bits = lookup(node.exactRules, method);
+            return bits != null ? bits : lookup(node.catchAllRules, method);
+        }
+        // 字面量分支未能完整匹配时才尝试单段通配，最后退回当前节点的"**"规则
+        Node literal = node.literals == null ? null : node.literals.get(segments[index]);
+        if (literal != null) {
+            long[] bits = match(literal, segments, index + 1, method);
+            if (bits != null) {
+                return bits;
+            }
+        }
+        if (node.wildcard != null) {
+            long[] bits = match(node.wildcard, segments, index + 1, method);
+            if (bits != null) {
+                return bits;
+            }
+        }
+        return lookup(node.catchAllRules, method);
+    }
+
+    private static long[] lookup(Map<String, long[]> rules, String method) {
+        if (rules == null) {
+            return null;
+        }
+        long[] bits = rules.get(method);
+        // Spring MVC把HEAD请求路由到GET处理器，没有HEAD规则时按GET规则校验
+        if (bits == null && "HEAD".equals(method)) {
+            bits = rules.get("GET");
+        }
+        return bits != null ? bits : rules.get(ANY_METHOD);
+    }
+
+    private static Map<String, long[]> merge(Map<String, long[]> rules, String method, long[] bits) {
+        if (rules == null) {
+            rules = new HashMap<>(4);
+        }
+        String key = method == null || method.isBlank() ? ANY_METHOD : method.trim().toUpperCase(Locale.ROOT);
+        rules.merge(key, bits, PermissionBits::or);
+        return rules;
+    }
+
+    /**
+     * 按"/"拆分路径，忽略空段（连续斜杠和首尾斜杠）
+     */
+    private static String[] split(String path) {
+        String trimmed = trimSlashes(path);
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static String trimSlashes(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    private static final class Node {
+
+        private Map<String, Node> literals;
+
+        private Node wildcard;
+
+        private Map<String, long[]> exactRules;
+
+        private Map<String, long[]> catchAllRules;
+
+        Node literalChild(String segment) {
+            if (literals == null) {
+                literals = new HashMap<>(4);
+            }
+            return literals.computeIfAbsent(segment, k -> new Node());
+        }
+
+        Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+}
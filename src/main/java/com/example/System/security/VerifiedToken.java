@@ -0,0 +1,130 @@
+package com.example.System.security;
+
+import com.example.System.rbac.PermissionBits;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * 已验签的JWT令牌
+ * 令牌只在进入请求时解析、验签一次，之后拦截器、异常日志和控制器都直接读取这里的声明
+ */
+public final class VerifiedToken {
+
+    private final Claims claims;
+    private final String username;
+    private final Long userId;
+    private final Date expiration;
+
+    /**
+     * 令牌中声明的角色位图和权限位图，首次访问时解析并缓存在令牌对象上
+     */
+    private volatile long[] roleBits;
+    private volatile long[] permissionBits;
+
+    public VerifiedToken(Claims claims) {
+        this.claims = claims;
+        this.username = claims.getSubject();
+        this.userId = claims.get(TokenClaims.USER_ID, Long.class);
+        this.expiration = claims.getExpiration();
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * 获取用户角色（用户表中的role字段）
+     */
+    public String getRole() {
+        return claims.get(TokenClaims.ROLE, String.class);
+    }
+
+    /**
+     * 签发时的RBAC版本号，旧令牌没有该声明时返回null
+     */
+    public Long getRbacVersion() {
+        return claims.get(TokenClaims.RBAC_VERSION, Long.class);
+    }
+
+    /**
+     * 签发时间，旧令牌没有该声明时返回null
+     */
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    /**
+     * 令牌ID（jti），旧令牌没有该声明时返回null
+     */
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    /**
+     * 签发时用户的令牌纪元，旧令牌没有该声明时视为0
+     */
+    public long getTokenEpoch() {
+        Long epoch = claims.get(TokenClaims.TOKEN_EPOCH, Long.class);
+        return epoch == null ? 0L : epoch;
+    }
+
+    /**
+     * 令牌是否携带完整的授权声明（角色、权限和RBAC版本号）
+     */
+    public boolean hasAuthorizationClaims() {
+        return getRbacVersion() != null
+                && claims.containsKey(TokenClaims.ROLE_BITS)
+                && claims.containsKey(TokenClaims.PERMISSION_BITS);
+    }
+
+    /**
+     * 令牌中声明的角色位图，调用方不得修改返回的数组
+     */
+    public long[] getRoleBits() {
+        long[] bits = roleBits;
+        if (bits == null) {
+            bits = PermissionBits.decode(claims.get(TokenClaims.ROLE_BITS, String.class));
+            roleBits = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * 令牌中声明的权限位图，调用方不得修改返回的数组
+     */
+    public long[] getPermissionBits() {
+        long[] bits = permissionBits;
+        if (bits == null) {
+            bits = PermissionBits.decode(claims.get(TokenClaims.PERMISSION_BITS, String.class));
+            permissionBits = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * 获取指定声明
+     */
+    public <T> T getClaim(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+
+    /**
+     * 检查令牌是否已过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.System.security;
+
+import com.example.System.common.CacheStatsProvider;
+import com.example.System.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验签令牌缓存
+ * 以令牌的SHA-256摘要为键缓存验签结果，客户端重复使用同一令牌时跳过Base64解码、JSON解析和HMAC验签。
+ * 每个条目的存活时间不超过令牌自身的exp，同时受容量上限和最大存活时间约束。
+ */
+@Component
+public class VerifiedTokenCache implements CacheStatsProvider {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.cache.max-ttl:600000}")
+    private long maxTtlMillis;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return ttlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return ttlNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 验签令牌，命中缓存时直接返回
+     * 签名无效或已过期时抛出JwtException，失败结果不会被缓存
+     */
+    public VerifiedToken verify(String token) {
+        if (!enabled) {
+            return jwtUtil.verify(token);
+        }
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+        cache.put(key, verifiedToken);
+        return verifiedToken;
+    }
+
+    /**
+     * 移除指定令牌的缓存
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String getCacheName() {
+        return "verifiedToken";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * 条目存活时间：令牌剩余有效期与最大存活时间取较小值
+     */
+    private long ttlNanos(VerifiedToken token) {
+        long ttlMillis = maxTtlMillis;
+        if (token.getExpiration() != null) {
+            long remaining = token.getExpiration().getTime() - System.currentTimeMillis();
+            ttlMillis = Math.min(ttlMillis, Math.max(remaining, 0L));
+        }
+        return TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    private static String digest(String token) {
+        MessageDigest messageDigest = SHA256.get();
+        messageDigest.reset();
+        byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
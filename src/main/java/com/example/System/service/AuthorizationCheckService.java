@@ -0,0 +1,13 @@
+package com.example.System.service;
+
+import com.example.System.dto.AuthorizationCheck;
+
+import java.util.List;
+
+public interface AuthorizationCheckService {
+
+    /**
+     * 批量鉴权，按请求顺序返回每条的判定结果（见AuthorizationCheckResponse中的常量）
+     */
+    byte[] check(List<AuthorizationCheck> checks);
+}
@@ -2,8 +2,11 @@ package com.example.System.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.example.System.entity.Permission;
+import com.example.System.rbac.MenuTree;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface PermissionService extends IService<Permission> {
     
@@ -12,6 +15,11 @@ public interface PermissionService extends IService<Permission> {
      */
     List<Permission> getPermissionsByUserId(Long userId);
     
+    /**
+     * 批量获取多个用户的权限列表
+     */
+    Map<Long, List<Permission>> getPermissionsByUserIds(Collection<Long> userIds);
+    
     /**
      * 根据角色ID获取权限列表
      */
@@ -21,4 +29,9 @@ public interface PermissionService extends IService<Permission> {
      * 根据权限代码获取权限
      */
     Permission getByPermissionCode(String permissionCode);
-}
\ No newline at end of file
+
+    /**
+     * 获取当前RBAC版本的完整菜单树，版本变化后首次调用时重新构建
+     */
+    MenuTree getMenuTree();
+}
@@ -0,0 +1,11 @@
+package com.example.System.service;
+
+import com.example.System.dto.RbacChangesResponse;
+
+public interface RbacChangeService {
+
+    /**
+     * 获取指定版本之后的RBAC变更，包含已删除的记录（墓碑），最多处理limit条变更日志
+     */
+    RbacChangesResponse getChangesSince(long sinceVersion, int limit);
+}
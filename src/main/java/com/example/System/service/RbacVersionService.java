@@ -0,0 +1,46 @@
+package com.example.System.service;
+
+import com.example.System.rbac.RbacChangeType;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RBAC版本服务
+ * 维护RBAC数据的版本号，令牌中携带签发时的版本号，版本变化后旧令牌中的权限声明不再可信
+ */
+public interface RbacVersionService {
+
+    /**
+     * 获取当前RBAC版本号
+     */
+    long getCurrentVersion();
+
+    /**
+     * 版本号是否已可用：集群同步模式下首次拉取完成前版本号只是启动时间戳，不能与变更日志ID比较；单机模式始终可用
+     */
+    boolean isInitialized();
+
+    /**
+     * 本节点最近一次未能写入变更日志的变更时间（毫秒），没有时返回0
+     * 这类变更不推进版本号，此前签发的令牌即使版本号一致，其中的授权声明也不再可信
+     */
+    long getUntrackedChangeTime();
+
+    /**
+     * 是否启用集群同步，启用时每次变更都记录在rbac_change_log中，版本号即变更日志ID
+     */
+    boolean isSyncEnabled();
+
+    /**
+     * 记录一次RBAC变更：递增版本号并发布RbacChangedEvent
+     */
+    void publishChange(RbacChangeType changeType, Collection<Long> targetIds);
+
+    /**
+     * 记录一次RBAC变更
+     */
+    default void publishChange(RbacChangeType changeType, Long targetId) {
+        publishChange(changeType, List.of(targetId));
+    }
+}
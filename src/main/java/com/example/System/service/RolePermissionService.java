@@ -0,0 +1,24 @@
+package com.example.System.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import com.example.System.entity.RolePermission;
+
+import java.util.Collection;
+
+public interface RolePermissionService extends IService<RolePermission> {
+
+    /**
+     * 为角色授予权限，已授予的保持不变，返回新增的权限数
+     */
+    int grantPermissions(Long roleId, Collection<Long> permissionIds);
+
+    /**
+     * 撤销角色的权限，返回实际撤销的权限数
+     */
+    int revokePermissions(Long roleId, Collection<Long> permissionIds);
+
+    /**
+     * 将角色的权限替换为指定集合，只写入差异部分，返回新增和撤销的权限总数
+     */
+    int replacePermissions(Long roleId, Collection<Long> permissionIds);
+}
@@ -3,7 +3,9 @@ package com.example.System.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.example.System.entity.Role;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface RoleService extends IService<Role> {
     
@@ -12,6 +14,11 @@ public interface RoleService extends IService<Role> {
      */
     List<Role> getRolesByUserId(Long userId);
     
+    /**
+     * 批量获取多个用户的角色列表
+     */
+    Map<Long, List<Role>> getRolesByUserIds(Collection<Long> userIds);
+    
     /**
      * 根据角色代码获取角色
      */
@@ -0,0 +1,11 @@
+package com.example.System.service;
+
+import com.example.System.dto.TokenIntrospection;
+
+public interface TokenIntrospectionService {
+
+    /**
+     * 验证令牌并返回身份、有效角色和权限代码；令牌无效或已过期时返回active=false
+     */
+    TokenIntrospection introspect(String token);
+}
@@ -0,0 +1,16 @@
+package com.example.System.service;
+
+import com.example.System.security.VerifiedToken;
+
+public interface TokenRevocationService {
+
+    /**
+     * 吊销单个令牌，如用户登出或令牌泄露
+     */
+    void revokeToken(VerifiedToken token);
+
+    /**
+     * 推进用户的令牌纪元，吊销该用户此前签发的全部令牌，返回新的纪元
+     */
+    long revokeUserTokens(Long userId);
+}
@@ -0,0 +1,19 @@
+package com.example.System.service;
+
+import com.example.System.rbac.UserGrants;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface UserGrantsService {
+
+    /**
+     * 获取用户的有效授权（角色位图和权限位图）
+     */
+    UserGrants getUserGrants(Long userId);
+
+    /**
+     * 批量获取多个用户的有效授权，结果按传入顺序排列，查询次数与用户数无关（按固定大小分批）
+     */
+    Map<Long, UserGrants> getUserGrants(Collection<Long> userIds);
+}
@@ -1,9 +1,13 @@
 package com.example.System.service;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.example.System.entity.User;
 import com.example.System.entity.UserRole;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserRoleService extends IService<UserRole> {
     
@@ -13,12 +17,37 @@ public interface UserRoleService extends IService<UserRole> {
     List<Long> getRoleIdsByUserId(Long userId);
     
     /**
-     * 分配用户角色
+     * 批量获取多个用户的角色ID列表，按固定大小分批查询
      */
-    boolean assignUserRole(Long userId, Long roleId);
+    Map<Long, List<Long>> getRoleIdsByUserIds(Collection<Long> userIds);
+    
+    /**
+     * 分配用户角色，已拥有该角色时不做修改，写入失败时抛出异常
+     */
+    void assignUserRole(Long userId, Long roleId);
     
     /**
      * 取消用户角色
      */
     boolean removeUserRole(Long userId, Long roleId);
-}
\ No newline at end of file
+
+    /**
+     * 批量分配用户角色，只写入当前不存在的关系，已取消的关系会被恢复，返回实际新增的关系数
+     */
+    int assignUserRoles(Collection<UserRole> userRoles);
+
+    /**
+     * 批量取消用户角色，只写入当前有效的关系，返回实际取消的关系数
+     */
+    int removeUserRoles(Collection<UserRole> userRoles);
+
+    /**
+     * 分页查询拥有指定角色的用户，按用户ID升序，includeInherited为true时包含通过子角色继承该角色的用户
+     */
+    Page<User> getUsersByRole(Long roleId, boolean includeInherited, long current, long size);
+
+    /**
+     * 分页查询有效拥有指定权限的用户，按用户ID升序
+     */
+    Page<User> getUsersByPermission(Long permissionId, long current, long size);
+}
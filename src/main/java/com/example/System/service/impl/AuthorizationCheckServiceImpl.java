@@ -0,0 +1,109 @@
+package com.example.System.service.impl;
+
+import com.example.System.dto.AuthorizationCheck;
+import com.example.System.dto.AuthorizationCheckResponse;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.UserGrants;
+import com.example.System.security.AuthorizationPlan;
+import com.example.System.security.TokenClaimsPolicy;
+import com.example.System.security.TokenRevocationRegistry;
+import com.example.System.security.VerifiedToken;
+import com.example.System.security.VerifiedTokenCache;
+import com.example.System.service.AuthorizationCheckService;
+import com.example.System.service.UserGrantsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量鉴权服务实现
+ * 与拦截器使用相同的判定：令牌经验签缓存校验并检查是否已被吊销，无状态模式下可信的令牌声明直接使用，其余按用户授权缓存判定；
+ * 角色和权限代码按AuthorizationPlan编译为位图，同一批次中相同的条件只编译一次，用户授权一次批量加载。
+ */
+@Service
+public class AuthorizationCheckServiceImpl implements AuthorizationCheckService {
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenClaimsPolicy tokenClaimsPolicy;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private UserGrantsService userGrantsService;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Override
+    public byte[] check(List<AuthorizationCheck> checks) {
+        int n = checks.size();
+        byte[] decisions = new byte[n];
+        long[][] roleBits = new long[n][];
+        long[][] permissionBits = new long[n][];
+        Long[] grantUserIds = new Long[n];
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (int i = 0; i < n; i++) {
+            AuthorizationCheck check = checks.get(i);
+            if (check.getToken() == null) {
+                grantUserIds[i] = check.getUserId();
+                userIds.add(check.getUserId());
+                continue;
+            }
+            VerifiedToken verifiedToken;
+            try {
+                verifiedToken = verifiedTokenCache.verify(check.getToken());
+            } catch (Exception e) {
+                decisions[i] = AuthorizationCheckResponse.UNAUTHENTICATED;
+                continue;
+            }
+            if (verifiedToken.getUsername() == null || verifiedToken.getUserId() == null
+                    || tokenRevocationRegistry.isRevoked(verifiedToken)) {
+                decisions[i] = AuthorizationCheckResponse.UNAUTHENTICATED;
+            } else if (tokenClaimsPolicy.isTrusted(verifiedToken)) {
+                roleBits[i] = verifiedToken.getRoleBits();
+                permissionBits[i] = verifiedToken.getPermissionBits();
+            } else {
+                grantUserIds[i] = verifiedToken.getUserId();
+                userIds.add(verifiedToken.getUserId());
+            }
+        }
+
+        // 未命中缓存的用户通过一次批量查询加载
+        Map<Long, UserGrants> grants = userIds.isEmpty() ? Map.of() : userGrantsService.getUserGrants(userIds);
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        Map<String, AuthorizationPlan> plans = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (decisions[i] == AuthorizationCheckResponse.UNAUTHENTICATED) {
+                continue;
+            }
+            if (grantUserIds[i] != null) {
+                UserGrants userGrants = grants.get(grantUserIds[i]);
+                roleBits[i] = userGrants.getRoleBits();
+                permissionBits[i] = userGrants.getPermissionBits();
+            }
+            AuthorizationCheck check = checks.get(i);
+            AuthorizationPlan plan = plans.computeIfAbsent(planKey(check), key -> AuthorizationPlan.compile(
+                    check.getRoles().toArray(new String[0]), check.getPermissions().toArray(new String[0]),
+                    check.getLogical(), snapshot));
+            decisions[i] = plan.matches(roleBits[i], permissionBits[i])
+                    ? AuthorizationCheckResponse.ALLOWED
+                    : AuthorizationCheckResponse.DENIED;
+        }
+        return decisions;
+    }
+
+    private static String planKey(AuthorizationCheck check) {
+        return check.getLogical() + "\u0000" + String.join("\u0001", check.getRoles())
+                + "\u0000" + String.join("\u0001", check.getPermissions());
+    }
+}
@@ -4,8 +4,10 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.System.entity.ExceptionLog;
 import com.example.System.exception.BaseException;
 import com.example.System.mapper.ExceptionLogMapper;
+import com.example.System.security.TokenContext;
+import com.example.System.security.VerifiedToken;
+import com.example.System.security.VerifiedTokenCache;
 import com.example.System.service.ExceptionLogService;
-import com.example.System.util.JwtUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,7 +28,7 @@ public class ExceptionLogServiceImpl extends ServiceImpl<ExceptionLogMapper, Exc
         implements ExceptionLogService {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Override
     public void recordException(Exception exception, HttpServletRequest request, String traceId) {
@@ -118,24 +120,24 @@ public class ExceptionLogServiceImpl extends ServiceImpl<ExceptionLogMapper, Exc
         // 获取User-Agent
         exceptionLog.setUserAgent(request.getHeader("User-Agent"));
         
-        // 尝试从JWT令牌中获取用户信息
+        // 尝试从JWT令牌中获取用户信息（优先复用拦截器已验签的令牌）
         try {
-            String token = request.getHeader("Authorization");
-            if (StringUtils.hasText(token) && token.startsWith("Bearer ")) {
-                token = token.substring(7);
-                try {
-                    String username = jwtUtil.getUsernameFromToken(token);
-                    if (username != null && !username.isEmpty()) {
-                        exceptionLog.setUsername(username);
-                        // 这里可以根据需要查询用户ID
-                        // Long userId = userService.getUserIdByUsername(username);
-                        // exceptionLog.setUserId(userId);
+            VerifiedToken verifiedToken = TokenContext.get(request);
+            if (verifiedToken == null) {
+                String token = TokenContext.resolveBearerToken(request);
+                if (StringUtils.hasText(token)) {
+                    try {
+                        verifiedToken = verifiedTokenCache.verify(token);
+                    } catch (Exception e) {
+                        // Token解析失败，忽略
+                        log.debug("JWT令牌解析失败: " + e.getMessage());
                     }
-                } catch (Exception e) {
-                    // Token解析失败，忽略
-                    log.debug("JWT令牌解析失败: " + e.getMessage());
                 }
             }
+            if (verifiedToken != null && StringUtils.hasText(verifiedToken.getUsername())) {
+                exceptionLog.setUsername(verifiedToken.getUsername());
+                exceptionLog.setUserId(verifiedToken.getUserId());
+            }
         } catch (Exception e) {
             // 忽略解析JWT异常
             log.debug("解析JWT令牌失败: " + e.getMessage());
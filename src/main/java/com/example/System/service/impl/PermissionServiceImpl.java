@@ -3,72 +3,106 @@ package com.example.System.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.System.entity.Permission;
-import com.example.System.entity.Role;
-import com.example.System.entity.RolePermission;
 import com.example.System.mapper.PermissionMapper;
-import com.example.System.mapper.RolePermissionMapper;
+import com.example.System.rbac.MenuTree;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.UserGrants;
 import com.example.System.service.PermissionService;
-import com.example.System.service.RoleService;
+import com.example.System.security.RequestMemo;
+import com.example.System.service.UserGrantsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permission> implements PermissionService {
 
     @Autowired
-    private RolePermissionMapper rolePermissionMapper;
-    
+    private UserGrantsService userGrantsService;
+
     @Autowired
-    private RoleService roleService;
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Value("${app.rbac.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    private volatile MenuTree menuTree;
 
     @Override
     public List<Permission> getPermissionsByUserId(Long userId) {
-        // 获取用户的所有角色
-        List<Long> roleIds = roleService.getRolesByUserId(userId).stream()
-                .map(Role::getId)
-                .collect(Collectors.toList());
-        
-        if (roleIds.isEmpty()) {
-            return List.of();
+        return RequestMemo.computeIfAbsent("permissions:" + userId,
+                () -> Collections.unmodifiableList(resolvePermissionsByUserId(userId)));
+    }
+
+    private List<Permission> resolvePermissionsByUserId(Long userId) {
+        // 权限位图已包含继承的角色和蕴含的权限，与拦截器的判定一致，这里只需还原为权限列表
+        long[] permissionBits = userGrantsService.getUserGrants(userId).getPermissionBits();
+        if (!snapshotEnabled) {
+            return listByPermissionBits(permissionBits);
+        }
+        return rbacSnapshotManager.getSnapshot().getPermissions(permissionBits);
+    }
+
+    @Override
+    public Map<Long, List<Permission>> getPermissionsByUserIds(Collection<Long> userIds) {
+        Map<Long, UserGrants> grantsByUser = userGrantsService.getUserGrants(userIds);
+        Map<Long, List<Permission>> result = new LinkedHashMap<>();
+        if (snapshotEnabled) {
+            RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+            grantsByUser.forEach((userId, grants) -> result.put(userId, snapshot.getPermissions(grants.getPermissionBits())));
+            return result;
         }
-        
-        // 获取角色关联的所有权限ID
-        QueryWrapper<RolePermission> rpQueryWrapper = new QueryWrapper<>();
-        rpQueryWrapper.in("role_id", roleIds);
-        List<Long> permissionIds = rolePermissionMapper.selectList(rpQueryWrapper).stream()
-                .map(RolePermission::getPermissionId)
-                .collect(Collectors.toList());
-        
-        if (permissionIds.isEmpty()) {
-            return List.of();
+        // 所有用户涉及的权限一次查询
+        Set<Long> permissionIds = new HashSet<>();
+        grantsByUser.values().forEach(grants ->
+                Arrays.stream(PermissionBits.toIds(grants.getPermissionBits())).forEach(permissionIds::add));
+        Map<Long, Permission> permissions = new HashMap<>();
+        if (!permissionIds.isEmpty()) {
+            listByIds(permissionIds).forEach(permission -> permissions.put(permission.getId(), permission));
         }
-        
-        // 获取权限详情
-        QueryWrapper<Permission> pQueryWrapper = new QueryWrapper<>();
-        pQueryWrapper.in("id", permissionIds);
-        return list(pQueryWrapper);
+        grantsByUser.forEach((userId, grants) -> result.put(userId, Arrays.stream(PermissionBits.toIds(grants.getPermissionBits()))
+                .mapToObj(permissions::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return result;
     }
 
     @Override
     public List<Permission> getPermissionsByRoleId(Long roleId) {
-        // 获取角色关联的所有权限ID
-        QueryWrapper<RolePermission> rpQueryWrapper = new QueryWrapper<>();
-        rpQueryWrapper.eq("role_id", roleId);
-        List<Long> permissionIds = rolePermissionMapper.selectList(rpQueryWrapper).stream()
-                .map(RolePermission::getPermissionId)
-                .collect(Collectors.toList());
-        
-        if (permissionIds.isEmpty()) {
-            return List.of();
+        if (!snapshotEnabled) {
+            return baseMapper.selectPermissionsByRoleId(roleId);
+        }
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        return snapshot.getPermissions(snapshot.getRoleDirectPermissionBits(roleId));
+    }
+
+    /**
+     * 按权限位图查询权限列表（按ID升序）
+     */
+    private List<Permission> listByPermissionBits(long[] permissionBits) {
+        List<Long> ids = Arrays.stream(PermissionBits.toIds(permissionBits)).boxed().collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        // 获取权限详情
-        QueryWrapper<Permission> pQueryWrapper = new QueryWrapper<>();
-        pQueryWrapper.in("id", permissionIds);
-        return list(pQueryWrapper);
+        List<Permission> result = new ArrayList<>(listByIds(ids));
+        result.sort(Comparator.comparing(Permission::getId));
+        return result;
     }
 
     @Override
@@ -77,4 +111,15 @@ public class PermissionServiceImpl extends ServiceImpl<PermissionMapper, Permiss
         queryWrapper.eq("permission_code", permissionCode);
         return getOne(queryWrapper);
     }
-}
\ No newline at end of file
+
+    @Override
+    public MenuTree getMenuTree() {
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        MenuTree current = menuTree;
+        if (current == null || current.getSnapshotVersion() != snapshot.getVersion()) {
+            current = MenuTree.build(snapshot);
+            menuTree = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.System.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.System.dto.RbacChangesResponse;
+import com.example.System.entity.RbacChangeLog;
+import com.example.System.mapper.PermissionMapper;
+import com.example.System.mapper.RbacChangeLogMapper;
+import com.example.System.mapper.RoleMapper;
+import com.example.System.mapper.RolePermissionMapper;
+import com.example.System.mapper.UserRoleMapper;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.service.RbacChangeService;
+import com.example.System.service.RbacVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * RBAC增量变更服务实现
+ * 基于rbac_change_log计算两个版本之间受影响的ID，再按ID查询当前数据（包含已逻辑删除的记录），
+ * 同一对象多次变更只返回一次最新状态。只返回到本节点已连续应用的版本号为止，ID空洞之后的变更留到下次返回，
+ * 避免晚提交的较小ID被客户端错过。
+ */
+@Service
+public class RbacChangeServiceImpl extends ServiceImpl<RbacChangeLogMapper, RbacChangeLog> implements RbacChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacChangeServiceImpl.class);
+
+    /**
+     * 批量查询时IN列表的最大长度
+     */
+    private static final int BATCH_QUERY_SIZE = 1000;
+
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private RolePermissionMapper rolePermissionMapper;
+
+    @Override
+    public RbacChangesResponse getChangesSince(long sinceVersion, int limit) {
+        // 本节点尚未完成首次拉取，版本号不是变更日志ID，返回空增量并保持客户端的版本号
+        if (!rbacVersionService.isInitialized()) {
+            return RbacChangesResponse.empty(sinceVersion, sinceVersion);
+        }
+        long currentVersion = rbacVersionService.getCurrentVersion();
+        if (sinceVersion == currentVersion) {
+            return RbacChangesResponse.empty(sinceVersion, currentVersion);
+        }
+        // 未启用集群同步时没有变更日志
+        if (!rbacVersionService.isSyncEnabled()) {
+            return RbacChangesResponse.fullResync(sinceVersion, currentVersion);
+        }
+        // 版本号大于当前版本说明客户端上次从已同步到更新版本的节点拉取，本节点尚未追上，
+        // 返回空增量并把版本号回退到本节点的版本，之后重新拉取到的变更按ID幂等覆盖
+        if (sinceVersion > currentVersion) {
+            return RbacChangesResponse.empty(sinceVersion, currentVersion);
+        }
+        // 变更日志已被清理，无法保证增量完整
+        Long minId = baseMapper.selectMinId();
+        if (minId == null || minId > sinceVersion + 1) {
+            logger.debug("RBAC变更日志不足以计算增量: sinceVersion={}, minId={}", sinceVersion, minId);
+            return RbacChangesResponse.fullResync(sinceVersion, currentVersion);
+        }
+
+        QueryWrapper<RbacChangeLog> queryWrapper = new QueryWrapper<>();
+        queryWrapper.gt("id", sinceVersion).le("id", currentVersion).orderByAsc("id").last("LIMIT " + limit);
+        List<RbacChangeLog> changeLogs = list(queryWrapper);
+
+        Map<RbacChangeType, Set<Long>> targets = new EnumMap<>(RbacChangeType.class);
+        for (RbacChangeLog changeLog : changeLogs) {
+            try {
+                RbacChangeType changeType = RbacChangeType.valueOf(changeLog.getChangeType());
+                targets.computeIfAbsent(changeType, k -> new LinkedHashSet<>()).addAll(changeLog.parseTargetIds());
+            } catch (IllegalArgumentException e) {
+                logger.warn("未知的RBAC变更类型，跳过: id={}, type={}", changeLog.getId(), changeLog.getChangeType());
+            }
+        }
+
+        boolean hasMore = changeLogs.size() == limit && changeLogs.get(changeLogs.size() - 1).getId() < currentVersion;
+        RbacChangesResponse response = new RbacChangesResponse();
+        response.setSinceVersion(sinceVersion);
+        response.setVersion(hasMore ? changeLogs.get(changeLogs.size() - 1).getId() : currentVersion);
+        response.setFullResync(false);
+        response.setHasMore(hasMore);
+        response.setRoles(selectInChunks(targets.get(RbacChangeType.ROLE), roleMapper::selectByIdsWithDeleted));
+        response.setPermissions(selectInChunks(targets.get(RbacChangeType.PERMISSION),
+                permissionMapper::selectByIdsWithDeleted));
+        response.setUserRoles(selectInChunks(targets.get(RbacChangeType.USER_ROLE),
+                userRoleMapper::selectByUserIdsWithDeleted));
+        response.setRolePermissions(selectInChunks(targets.get(RbacChangeType.ROLE_PERMISSION),
+                rolePermissionMapper::selectByRoleIdsWithDeleted));
+        return response;
+    }
+
+    private static <T> List<T> selectInChunks(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        List<T> result = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += BATCH_QUERY_SIZE) {
+            result.addAll(query.apply(idList.subList(from, Math.min(from + BATCH_QUERY_SIZE, idList.size()))));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.System.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.System.entity.RbacChangeLog;
+import com.example.System.mapper.RbacChangeLogMapper;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.rbac.RbacChangedEvent;
+import com.example.System.service.RbacVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * RBAC版本服务实现
+ * 集群模式下每次变更写入rbac_change_log，自增ID即版本号，各节点定时拉取新增的变更并在本地发布RbacChangedEvent，
+ * 只失效或重新加载受影响的数据。版本号只按ID连续推进：遇到ID空洞（其他节点的事务尚未提交）时等待，
+ * 超过gap-timeout仍未出现则视为回滚留下的空洞并跳过。本节点的变更写入后立即在本地发布，不等待拉取。
+ * 单机模式（app.rbac.sync.enabled=false）下版本号以启动时间初始化并在内存中递增。
+ */
+@Service
+public class RbacVersionServiceImpl implements RbacVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RbacVersionServiceImpl.class);
+
+    @Autowired
+    private RbacChangeLogMapper rbacChangeLogMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.rbac.sync.enabled:true}")
+    private boolean syncEnabled;
+
+    @Value("${app.rbac.sync.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.rbac.sync.gap-timeout:5000}")
+    private long gapTimeoutMillis;
+
+    @Value("${app.rbac.sync.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * 集群模式下为已连续应用的最大变更ID；单机模式下为内存中递增的版本号
+     */
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * 本节点已发布事件、但版本号尚未推进到的变更ID，拉取到时不再重复发布
+     */
+    private final Set<Long> publishedAhead = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean initialized;
+
+    private volatile long untrackedChangeTime;
+
+    private long gapSince;
+
+    @Override
+    public long getCurrentVersion() {
+        return version.get();
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return !syncEnabled || initialized;
+    }
+
+    @Override
+    public long getUntrackedChangeTime() {
+        return untrackedChangeTime;
+    }
+
+    @Override
+    public boolean isSyncEnabled() {
+        return syncEnabled;
+    }
+
+    @Override
+    public void publishChange(RbacChangeType changeType, Collection<Long> targetIds) {
+        // 在事务中调用时推迟到提交之后，避免本地重新加载读到提交前的数据，回滚时也不会产生变更
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // 原事务已提交但连接仍绑定在当前线程，变更日志需在新事务中写入
+                    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    transactionTemplate.executeWithoutResult(status -> recordChange(changeType, targetIds));
+                }
+            });
+            return;
+        }
+        recordChange(changeType, targetIds);
+    }
+
+    private void recordChange(RbacChangeType changeType, Collection<Long> targetIds) {
+        if (!syncEnabled) {
+            publishEvent(version.incrementAndGet(), changeType, targetIds);
+            return;
+        }
+        RbacChangeLog changeLog = new RbacChangeLog()
+                .setChangeType(changeType.name())
+                .setTargetIds(targetIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        try {
+            rbacChangeLogMapper.insert(changeLog);
+        } catch (Exception e) {
+            // 变更日志写入失败不影响业务操作，但其他节点只能等缓存过期
+            logger.warn("写入RBAC变更日志失败，变更仅在本节点生效: {}", e.getMessage());
+            // 版本号不变，记录变更时间使此前签发的令牌回退到数据库校验
+            untrackedChangeTime = System.currentTimeMillis();
+            publishEvent(version.get(), changeType, targetIds);
+            return;
+        }
+        publishedAhead.add(changeLog.getId());
+        publishEvent(changeLog.getId(), changeType, targetIds);
+        poll();
+    }
+
+    /**
+     * 拉取其他节点写入的变更
+     */
+    @Scheduled(fixedDelayString = "${app.rbac.sync.poll-interval:1000}")
+    public synchronized void poll() {
+        if (!syncEnabled) {
+            return;
+        }
+        try {
+            if (!initialized) {
+                // 启动时从当前最大ID开始，之前的变更已体现在首次加载的数据中
+                Long maxId = rbacChangeLogMapper.selectMaxId();
+                long start = maxId == null ? 0L : maxId;
+                version.set(start);
+                publishedAhead.removeIf(id -> id <= start);
+                initialized = true;
+                logger.info("RBAC变更同步已启动: version={}", start);
+                return;
+            }
+            QueryWrapper<RbacChangeLog> queryWrapper = new QueryWrapper<>();
+            queryWrapper.gt("id", version.get()).orderByAsc("id").last("LIMIT " + batchSize);
+            for (RbacChangeLog changeLog : rbacChangeLogMapper.selectList(queryWrapper)) {
+                if (changeLog.getId() != version.get() + 1 && !gapExpired()) {
+                    break;
+                }
+                gapSince = 0L;
+                apply(changeLog);
+            }
+        } catch (Exception e) {
+            // 变更日志表尚未创建或数据库暂时不可用，下次再试
+            logger.debug("拉取RBAC变更失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清理超过保留期且已应用的变更日志
+     */
+    @Scheduled(fixedDelayString = "${app.rbac.sync.cleanup-interval:3600000}", initialDelay = 60000)
+    public void cleanup() {
+        if (!syncEnabled || !initialized) {
+            return;
+        }
+        try {
+            QueryWrapper<RbacChangeLog> queryWrapper = new QueryWrapper<>();
+            queryWrapper.lt("create_time", LocalDateTime.now().minusDays(retentionDays))
+                    .le("id", version.get());
+            int deleted = rbacChangeLogMapper.delete(queryWrapper);
+            if (deleted > 0) {
+                logger.info("已清理{}条过期的RBAC变更日志", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("清理RBAC变更日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * ID空洞是否已等待超时
+     */
+    private boolean gapExpired() {
+        long now = System.currentTimeMillis();
+        if (gapSince == 0L) {
+            gapSince = now;
+        }
+        if (now - gapSince < gapTimeoutMillis) {
+            return false;
+        }
+        logger.warn("RBAC变更日志ID空洞等待超时，跳过: after={}", version.get());
+        return true;
+    }
+
+    private void apply(RbacChangeLog changeLog) {
+        version.set(changeLog.getId());
+        if (publishedAhead.remove(changeLog.getId())) {
+            return;
+        }
+        RbacChangeType changeType;
+        try {
+            changeType = RbacChangeType.valueOf(changeLog.getChangeType());
+        } catch (IllegalArgumentException e) {
+            logger.warn("未知的RBAC变更类型，跳过: id={}, type={}", changeLog.getId(), changeLog.getChangeType());
+            return;
+        }
+        publishEvent(changeLog.getId(), changeType, changeLog.parseTargetIds());
+    }
+
+    private void publishEvent(long eventVersion, RbacChangeType changeType, Collection<Long> targetIds) {
+        logger.debug("RBAC数据变更: type={}, targets={}, version={}", changeType, targetIds, eventVersion);
+        eventPublisher.publishEvent(new RbacChangedEvent(this, eventVersion, changeType, targetIds));
+    }
+}
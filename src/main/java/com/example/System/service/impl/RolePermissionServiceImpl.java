@@ -0,0 +1,119 @@
+package com.example.System.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import com.example.System.exception.BusinessException;
+import com.example.System.mapper.PermissionMapper;
+import com.example.System.mapper.RoleMapper;
+import com.example.System.mapper.RolePermissionMapper;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.service.RbacVersionService;
+import com.example.System.service.RolePermissionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * 角色权限关系服务实现
+ * 先计算请求集合与当前授权的差集，只对差异部分分批插入或逻辑删除，整个操作在一个事务内完成，提交后发布一次变更
+ */
+@Service
+public class RolePermissionServiceImpl extends ServiceImpl<RolePermissionMapper, RolePermission> implements RolePermissionService {
+
+    /**
+     * 批量写入时每条语句包含的权限数
+     */
+    private static final int BATCH_WRITE_SIZE = 500;
+
+    @Autowired
+    private RoleMapper roleMapper;
+
+    @Autowired
+    private PermissionMapper permissionMapper;
+
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int grantPermissions(Long roleId, Collection<Long> permissionIds) {
+        Set<Long> current = lockAndGetPermissionIds(roleId);
+        Set<Long> toGrant = new LinkedHashSet<>(permissionIds);
+        toGrant.removeAll(current);
+        checkPermissionsExist(toGrant);
+        return applyChanges(roleId, toGrant, Set.of());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int revokePermissions(Long roleId, Collection<Long> permissionIds) {
+        Set<Long> current = lockAndGetPermissionIds(roleId);
+        Set<Long> toRevoke = new LinkedHashSet<>(permissionIds);
+        toRevoke.retainAll(current);
+        return applyChanges(roleId, Set.of(), toRevoke);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int replacePermissions(Long roleId, Collection<Long> permissionIds) {
+        Set<Long> current = lockAndGetPermissionIds(roleId);
+        Set<Long> target = new LinkedHashSet<>(permissionIds);
+        Set<Long> toGrant = new LinkedHashSet<>(target);
+        toGrant.removeAll(current);
+        Set<Long> toRevoke = new LinkedHashSet<>(current);
+        toRevoke.removeAll(target);
+        checkPermissionsExist(toGrant);
+        return applyChanges(roleId, toGrant, toRevoke);
+    }
+
+    /**
+     * 锁定角色行以串行化同一角色的并发修改，返回角色当前有效的权限ID
+     */
+    private Set<Long> lockAndGetPermissionIds(Long roleId) {
+        QueryWrapper<Role> roleQuery = new QueryWrapper<>();
+        roleQuery.select("id").eq("id", roleId).last("FOR UPDATE");
+        if (roleMapper.selectOne(roleQuery) == null) {
+            throw BusinessException.roleNotFound();
+        }
+        QueryWrapper<RolePermission> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("permission_id").eq("role_id", roleId);
+        Set<Long> permissionIds = new LinkedHashSet<>();
+        for (RolePermission rolePermission : list(queryWrapper)) {
+            permissionIds.add(rolePermission.getPermissionId());
+        }
+        return permissionIds;
+    }
+
+    private void checkPermissionsExist(Set<Long> permissionIds) {
+        if (!permissionIds.isEmpty() && permissionMapper.selectBatchIds(permissionIds).size() != permissionIds.size()) {
+            throw BusinessException.permissionNotFound();
+        }
+    }
+
+    private int applyChanges(Long roleId, Set<Long> toGrant, Set<Long> toRevoke) {
+        int changed = writeInChunks(toGrant, chunk -> baseMapper.upsertBatch(roleId, chunk))
+                + writeInChunks(toRevoke, chunk -> baseMapper.removeBatch(roleId, chunk));
+        if (!toGrant.isEmpty() || !toRevoke.isEmpty()) {
+            rbacVersionService.publishChange(RbacChangeType.ROLE_PERMISSION, roleId);
+        }
+        return changed;
+    }
+
+    private static int writeInChunks(Set<Long> ids, ToIntFunction<List<Long>> write) {
+        List<Long> idList = new ArrayList<>(ids);
+        int rows = 0;
+        for (int from = 0; from < idList.size(); from += BATCH_WRITE_SIZE) {
+            rows += write.applyAsInt(idList.subList(from, Math.min(from + BATCH_WRITE_SIZE, idList.size())));
+        }
+        return rows;
+    }
+}
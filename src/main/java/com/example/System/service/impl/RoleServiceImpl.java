@@ -4,29 +4,111 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.System.entity.Role;
 import com.example.System.mapper.RoleMapper;
+import com.example.System.rbac.OffHeapUserRoleStore;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotFileStore;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.SingleFlight;
+import com.example.System.rbac.UserGrants;
 import com.example.System.service.RoleService;
-import com.example.System.service.UserRoleService;
+import com.example.System.security.RequestMemo;
+import com.example.System.service.UserGrantsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements RoleService {
 
     @Autowired
-    private UserRoleService userRoleService;
+    private UserGrantsService userGrantsService;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private OffHeapUserRoleStore offHeapUserRoleStore;
+
+    @Autowired
+    private RbacSnapshotFileStore rbacSnapshotFileStore;
+
+    @Value("${app.rbac.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
 
     @Override
     public List<Role> getRolesByUserId(Long userId) {
-        List<Long> roleIds = userRoleService.getRoleIdsByUserId(userId);
-        if (roleIds.isEmpty()) {
-            return List.of();
+        return RequestMemo.computeIfAbsent("roles:" + userId,
+                () -> Collections.unmodifiableList(resolveRolesByUserId(userId)));
+    }
+
+    private List<Role> resolveRolesByUserId(Long userId) {
+        if (!snapshotEnabled) {
+            return singleFlight.load("roles:" + userId, () -> withInheritedRoles(baseMapper.selectRolesByUserId(userId)));
         }
-        QueryWrapper<Role> queryWrapper = new QueryWrapper<>();
-        queryWrapper.in("id", roleIds);
-        return list(queryWrapper);
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        long[] directRoleIds = offHeapUserRoleStore.getRoleIds(userId);
+        if (directRoleIds == null) {
+            directRoleIds = rbacSnapshotFileStore.getRoleIds(userId);
+        }
+        if (directRoleIds != null) {
+            // 堆外存储或快照文件可用时直接读取，不经过堆上的授权缓存
+            return snapshot.getRoles(snapshot.effectiveRoleIds(snapshot.existingRoleIds(directRoleIds)));
+        }
+        long[] roleIds = userGrantsService.getUserGrants(userId).getRoleIds();
+        return snapshot.getRoles(roleIds);
+    }
+
+    @Override
+    public Map<Long, List<Role>> getRolesByUserIds(Collection<Long> userIds) {
+        Map<Long, UserGrants> grantsByUser = userGrantsService.getUserGrants(userIds);
+        Map<Long, Role> roles = new HashMap<>();
+        if (snapshotEnabled) {
+            rbacSnapshotManager.getSnapshot().getRoles().forEach(role -> roles.put(role.getId(), role));
+        } else {
+            // 所有用户涉及的角色一次查询
+            Set<Long> roleIds = new HashSet<>();
+            grantsByUser.values().forEach(grants -> Arrays.stream(grants.getRoleIds()).forEach(roleIds::add));
+            if (!roleIds.isEmpty()) {
+                listByIds(roleIds).forEach(role -> roles.put(role.getId(), role));
+            }
+        }
+        Map<Long, List<Role>> result = new LinkedHashMap<>();
+        grantsByUser.forEach((userId, grants) -> result.put(userId, Arrays.stream(grants.getRoleIds())
+                .mapToObj(roles::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return result;
+    }
+
+    /**
+     * 补充继承的祖先角色，没有继承关系时不额外查询
+     */
+    private List<Role> withInheritedRoles(List<Role> roles) {
+        long[] directRoleIds = roles.stream().mapToLong(Role::getId).sorted().toArray();
+        long[] effectiveRoleIds = rbacSnapshotManager.getSnapshot().effectiveRoleIds(directRoleIds);
+        if (Arrays.equals(directRoleIds, effectiveRoleIds)) {
+            return roles;
+        }
+        List<Role> result = new ArrayList<>(listByIds(Arrays.stream(effectiveRoleIds).boxed().collect(Collectors.toList())));
+        result.sort(Comparator.comparing(Role::getId));
+        return result;
     }
 
     @Override
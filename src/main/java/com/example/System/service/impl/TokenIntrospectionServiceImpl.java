@@ -0,0 +1,85 @@
+package com.example.System.service.impl;
+
+import com.example.System.dto.TokenIntrospection;
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.UserGrants;
+import com.example.System.security.TokenClaimsPolicy;
+import com.example.System.security.TokenRevocationRegistry;
+import com.example.System.security.VerifiedToken;
+import com.example.System.security.VerifiedTokenCache;
+import com.example.System.service.TokenIntrospectionService;
+import com.example.System.service.UserGrantsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * 令牌内省服务实现
+ * 令牌经验签缓存校验并检查是否已被吊销，角色和权限与拦截器的判定来源一致：无状态模式下可信的令牌声明直接使用，
+ * 其余来自用户授权缓存，位图按当前RBAC快照还原为代码，不直接查询数据库。
+ */
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenClaimsPolicy tokenClaimsPolicy;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private UserGrantsService userGrantsService;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Override
+    public TokenIntrospection introspect(String token) {
+        if (token.startsWith(BEARER_PREFIX)) {
+            token = token.substring(BEARER_PREFIX.length());
+        }
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.verify(token);
+        } catch (Exception e) {
+            return TokenIntrospection.inactive();
+        }
+        if (verifiedToken.getUsername() == null || verifiedToken.getUserId() == null
+                || tokenRevocationRegistry.isRevoked(verifiedToken)) {
+            return TokenIntrospection.inactive();
+        }
+
+        long[] roleBits;
+        long[] permissionBits;
+        if (tokenClaimsPolicy.isTrusted(verifiedToken)) {
+            roleBits = verifiedToken.getRoleBits();
+            permissionBits = verifiedToken.getPermissionBits();
+        } else {
+            UserGrants grants = userGrantsService.getUserGrants(verifiedToken.getUserId());
+            roleBits = grants.getRoleBits();
+            permissionBits = grants.getPermissionBits();
+        }
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+
+        TokenIntrospection introspection = new TokenIntrospection();
+        introspection.setActive(true);
+        introspection.setUserId(verifiedToken.getUserId());
+        introspection.setUsername(verifiedToken.getUsername());
+        introspection.setRole(verifiedToken.getRole());
+        introspection.setRoles(snapshot.getRoles(PermissionBits.toIds(roleBits)).stream()
+                .map(Role::getRoleCode).toList());
+        introspection.setPermissions(snapshot.getPermissions(permissionBits).stream()
+                .map(Permission::getPermissionCode).toList());
+        introspection.setExpiresAt(verifiedToken.getExpiration() == null ? null : verifiedToken.getExpiration().getTime());
+        introspection.setRbacVersion(snapshot.getVersion());
+        return introspection;
+    }
+}
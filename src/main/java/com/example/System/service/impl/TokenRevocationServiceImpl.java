@@ -0,0 +1,93 @@
+package com.example.System.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.example.System.entity.TokenRevocation;
+import com.example.System.entity.User;
+import com.example.System.exception.BusinessException;
+import com.example.System.mapper.TokenRevocationMapper;
+import com.example.System.mapper.UserMapper;
+import com.example.System.security.TokenRevocationRegistry;
+import com.example.System.security.VerifiedToken;
+import com.example.System.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 令牌吊销服务实现
+ * 吊销写入token_revocation，提交后立即应用到本节点的内存副本，其他节点通过定时拉取同步。
+ * 用户级吊销同时推进user.token_epoch，之后登录签发的令牌携带新纪元，不受影响。
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    @Autowired
+    private TokenRevocationMapper tokenRevocationMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    @Override
+    public void revokeToken(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            throw BusinessException.paramInvalid("该令牌没有令牌ID，无法单独吊销，请吊销该用户的全部令牌");
+        }
+        // 令牌过期后记录即可清理
+        LocalDateTime expireTime = token.getExpiration() == null
+                ? LocalDateTime.now().plusNanos(expiration * 1_000_000L)
+                : LocalDateTime.ofInstant(token.getExpiration().toInstant(), ZoneId.systemDefault());
+        TokenRevocation revocation = new TokenRevocation()
+                .setJti(token.getTokenId())
+                .setUserId(token.getUserId())
+                .setExpireTime(expireTime);
+        tokenRevocationMapper.insert(revocation);
+        applyAfterCommit(revocation);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public long revokeUserTokens(Long userId) {
+        UpdateWrapper<User> updateWrapper = new UpdateWrapper<>();
+        updateWrapper.eq("id", userId).setSql("token_epoch = COALESCE(token_epoch, 0) + 1");
+        if (userMapper.update(null, updateWrapper) == 0) {
+            throw BusinessException.userNotFound();
+        }
+        long epoch = userMapper.selectById(userId).getTokenEpoch();
+        // 此前签发的令牌最迟在一个有效期后全部过期，之后记录即可清理
+        TokenRevocation revocation = new TokenRevocation()
+                .setUserId(userId)
+                .setTokenEpoch(epoch)
+                .setExpireTime(LocalDateTime.now().plusNanos(expiration * 1_000_000L));
+        tokenRevocationMapper.insert(revocation);
+        applyAfterCommit(revocation);
+        return epoch;
+    }
+
+    /**
+     * 在事务中调用时推迟到提交之后，回滚时不会在本节点生效
+     */
+    private void applyAfterCommit(TokenRevocation revocation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenRevocationRegistry.apply(revocation);
+                }
+            });
+            return;
+        }
+        tokenRevocationRegistry.apply(revocation);
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.System.service.impl;
+
+import com.example.System.common.CacheStatsProvider;
+import com.example.System.mapper.UserRoleMapper;
+import com.example.System.rbac.OffHeapUserRoleStore;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.rbac.RbacChangedEvent;
+import com.example.System.rbac.RbacSnapshotFileStore;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.SingleFlight;
+import com.example.System.rbac.UserGrants;
+import com.example.System.security.RequestMemo;
+import com.example.System.service.UserGrantsService;
+import com.example.System.service.UserRoleService;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户有效授权服务
+ * 按用户缓存角色ID和由快照计算出的权限位图：
+ * 用户角色变更时按用户失效，角色或角色权限变更时按角色失效；
+ * 快照更新后未失效的条目直接在内存中按新快照重新计算；
+ * 条目写入超过refresh-after-write后，读取时先返回旧值并在后台刷新。
+ * 失效时同时移除进行中的单飞加载，失效后开始的加载不会共享失效前开始的查询结果。
+ */
+@Service
+public class UserGrantsServiceImpl implements UserGrantsService, CacheStatsProvider {
+
+    /**
+     * 批量联表查询时IN列表的最大长度
+     */
+    private static final int BATCH_QUERY_SIZE = 1000;
+
+    /**
+     * 请求内缓存和单飞加载的键前缀
+     */
+    private static final String GRANTS_KEY_PREFIX = "grants:";
+
+    @Autowired
+    private UserRoleService userRoleService;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private OffHeapUserRoleStore offHeapUserRoleStore;
+
+    @Autowired
+    private RbacSnapshotFileStore rbacSnapshotFileStore;
+
+    @Value("${app.rbac.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${app.rbac.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.rbac.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.rbac.cache.expire-after-write:1800000}")
+    private long expireAfterWriteMillis;
+
+    @Value("${app.rbac.cache.refresh-after-write:60000}")
+    private long refreshAfterWriteMillis;
+
+    private LoadingCache<Long, UserGrants> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMillis))
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterWriteMillis))
+                .recordStats()
+                .build(new CacheLoader<Long, UserGrants>() {
+                    @Override
+                    public UserGrants load(Long userId) {
+                        return loadUserGrants(userId);
+                    }
+
+                    @Override
+                    public Map<Long, UserGrants> loadAll(Set<? extends Long> userIds) {
+                        return loadUserGrants(userIds);
+                    }
+                });
+    }
+
+    @Override
+    public UserGrants getUserGrants(Long userId) {
+        // 同一请求内拦截器、服务和控制器共享一次解析结果
+        return RequestMemo.computeIfAbsent(GRANTS_KEY_PREFIX + userId, () -> resolveUserGrants(userId));
+    }
+
+    private UserGrants resolveUserGrants(Long userId) {
+        if (!cacheEnabled) {
+            return loadUserGrants(userId);
+        }
+        UserGrants grants = cache.get(userId);
+        if (!snapshotEnabled) {
+            return grants;
+        }
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        if (grants.getSnapshotVersion() != snapshot.getVersion()) {
+            UserGrants rebound = grants.rebind(snapshot);
+            // 期间条目被失效或刷新时不覆盖
+            cache.asMap().replace(userId, grants, rebound);
+            grants = rebound;
+        }
+        return grants;
+    }
+
+    @Override
+    public Map<Long, UserGrants> getUserGrants(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (!cacheEnabled) {
+            return loadUserGrants(ids);
+        }
+        // 未命中的用户通过loadAll一次性批量加载
+        Map<Long, UserGrants> result = new LinkedHashMap<>(cache.getAll(ids));
+        if (snapshotEnabled) {
+            RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+            result.replaceAll((userId, grants) -> {
+                if (grants.getSnapshotVersion() == snapshot.getVersion()) {
+                    return grants;
+                }
+                UserGrants rebound = grants.rebind(snapshot);
+                cache.asMap().replace(userId, grants, rebound);
+                return rebound;
+            });
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onRbacChanged(RbacChangedEvent event) {
+        RequestMemo.clear();
+        List<Long> targetIds = event.getTargetIds();
+        if (event.getChangeType() == RbacChangeType.USER_ROLE) {
+            if (targetIds.isEmpty()) {
+                // 没有目标表示全部用户（如快照文件落后且无法确定差异）
+                singleFlight.forgetByPrefix(GRANTS_KEY_PREFIX);
+                cache.invalidateAll();
+            } else {
+                targetIds.forEach(userId -> singleFlight.forget(GRANTS_KEY_PREFIX + userId));
+                cache.invalidateAll(targetIds);
+            }
+            return;
+        }
+        // 进行中的加载无法判断涉及哪些角色，全部移除
+        singleFlight.forgetByPrefix(GRANTS_KEY_PREFIX);
+        if (event.getChangeType() == RbacChangeType.ROLE || event.getChangeType() == RbacChangeType.ROLE_PERMISSION) {
+            if (targetIds.isEmpty()) {
+                cache.invalidateAll();
+            } else {
+                cache.asMap().values().removeIf(grants -> grants.hasAnyRole(targetIds));
+            }
+        } else if (!snapshotEnabled) {
+            // 未使用快照时无法在内存中重新计算，权限变更后全部失效
+            cache.invalidateAll();
+        }
+        // 使用快照时，权限变更不影响用户拥有的角色，读取时按新快照重新计算即可
+    }
+
+    @Override
+    public String getCacheName() {
+        return "userGrants";
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", cacheEnabled);
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadCount", stats.loadCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    private UserGrants loadUserGrants(Long userId) {
+        // 缓存未开启或条目刚失效时，同一用户的并发请求只查询一次数据库
+        return singleFlight.load(GRANTS_KEY_PREFIX + userId, () -> queryUserGrants(userId));
+    }
+
+    private UserGrants queryUserGrants(Long userId) {
+        if (!snapshotEnabled) {
+            // 一次联表查询得到直接授予的角色和权限，再按快照中的角色继承和权限蕴含关系展开
+            return UserGrants.of(userId, userRoleMapper.getRoleGrantsByUserId(userId))
+                    .expand(rbacSnapshotManager.getSnapshot());
+        }
+        // 只查询用户角色关系，角色和权限都从内存快照中获取；堆外存储或快照文件可用时不访问数据库
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        long[] directRoleIds = localDirectRoleIds(userId);
+        long[] roleIds = directRoleIds != null
+                ? snapshot.existingRoleIds(directRoleIds)
+                : snapshot.existingRoleIds(userRoleService.getRoleIdsByUserId(userId));
+        return UserGrants.of(userId, roleIds, snapshot);
+    }
+
+    private Map<Long, UserGrants> loadUserGrants(Collection<? extends Long> userIds) {
+        Map<Long, UserGrants> result = new LinkedHashMap<>();
+        if (!snapshotEnabled) {
+            // 按固定大小分批联表查询
+            List<Long> ids = new ArrayList<>(userIds);
+            for (int from = 0; from < ids.size(); from += BATCH_QUERY_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + BATCH_QUERY_SIZE, ids.size()));
+                result.putAll(UserGrants.of(chunk, userRoleMapper.getRoleGrantsByUserIds(chunk)));
+            }
+            RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+            result.replaceAll((userId, grants) -> grants.expand(snapshot));
+            return result;
+        }
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            long[] directRoleIds = localDirectRoleIds(userId);
+            if (directRoleIds == null) {
+                missing.add(userId);
+            } else {
+                result.put(userId, UserGrants.of(userId, snapshot.existingRoleIds(directRoleIds), snapshot));
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<Long, List<Long>> roleIdsByUser = userRoleService.getRoleIdsByUserIds(missing);
+        for (Long userId : missing) {
+            long[] roleIds = snapshot.existingRoleIds(roleIdsByUser.getOrDefault(userId, List.of()));
+            result.put(userId, UserGrants.of(userId, roleIds, snapshot));
+        }
+        return result;
+    }
+
+    /**
+     * 从堆外存储或快照文件读取用户的直接角色，都不可用时返回null
+     */
+    private long[] localDirectRoleIds(Long userId) {
+        long[] roleIds = offHeapUserRoleStore.getRoleIds(userId);
+        return roleIds != null ? roleIds : rbacSnapshotFileStore.getRoleIds(userId);
+    }
+}
@@ -1,44 +1,261 @@
 package com.example.System.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.example.System.entity.User;
 import com.example.System.entity.UserRole;
+import com.example.System.exception.BusinessException;
+import com.example.System.mapper.UserMapper;
 import com.example.System.mapper.UserRoleMapper;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.UserRoleIndex;
+import com.example.System.service.RbacVersionService;
 import com.example.System.service.UserRoleService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+/**
+ * 用户角色关系服务实现
+ * 批量分配和取消时先锁定涉及的用户并查询当前有效关系，只写入差异部分，
+ * 是否发生变更不依赖驱动返回的影响行数（MySQL的CLIENT_FOUND_ROWS会把未修改的重复行也计入），
+ * 整个操作在一个事务内完成，提交后发布一次变更
+ */
 @Service
 public class UserRoleServiceImpl extends ServiceImpl<UserRoleMapper, UserRole> implements UserRoleService {
 
+    /**
+     * 批量查询时IN列表的最大长度
+     */
+    private static final int BATCH_QUERY_SIZE = 1000;
+
+    /**
+     * 批量写入时每条语句包含的关系数
+     */
+    private static final int BATCH_WRITE_SIZE = 500;
+
+    @Autowired
+    private RbacVersionService rbacVersionService;
+
+    @Autowired
+    private UserRoleIndex userRoleIndex;
+
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+
+    @Autowired
+    private UserMapper userMapper;
+
     @Override
     public List<Long> getRoleIdsByUserId(Long userId) {
         return baseMapper.getRoleIdsByUserId(userId);
     }
 
     @Override
-    public boolean assignUserRole(Long userId, Long roleId) {
-        // 检查是否已经存在关联
-        QueryWrapper<UserRole> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("user_id", userId).eq("role_id", roleId);
-        UserRole existRelation = getOne(queryWrapper);
-        
-        if (existRelation != null) {
-            return true; // 已存在关联
+    public Map<Long, List<Long>> getRoleIdsByUserIds(Collection<Long> userIds) {
+        Map<Long, List<Long>> result = new HashMap<>();
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        for (int from = 0; from < ids.size(); from += BATCH_QUERY_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_QUERY_SIZE, ids.size()));
+            QueryWrapper<UserRole> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("user_id", "role_id").in("user_id", chunk);
+            for (UserRole userRole : list(queryWrapper)) {
+                result.computeIfAbsent(userRole.getUserId(), k -> new ArrayList<>()).add(userRole.getRoleId());
+            }
         }
-        
-        // 创建新的关联
+        return result;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void assignUserRole(Long userId, Long roleId) {
+        // 插入或恢复已逻辑删除的关联，已存在时不做修改
         UserRole userRole = new UserRole();
         userRole.setUserId(userId);
         userRole.setRoleId(roleId);
-        return save(userRole);
+        applyAssign(List.of(userRole));
     }
 
     @Override
     public boolean removeUserRole(Long userId, Long roleId) {
         QueryWrapper<UserRole> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("user_id", userId).eq("role_id", roleId);
-        return remove(queryWrapper);
+        boolean removed = remove(queryWrapper);
+        if (removed) {
+            rbacVersionService.publishChange(RbacChangeType.USER_ROLE, userId);
+        }
+        return removed;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int assignUserRoles(Collection<UserRole> userRoles) {
+        return applyAssign(distinct(userRoles));
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int removeUserRoles(Collection<UserRole> userRoles) {
+        List<UserRole> pairs = distinct(userRoles);
+        Set<String> active = lockAndGetActivePairs(pairs);
+        List<UserRole> toRemove = new ArrayList<>();
+        for (UserRole userRole : pairs) {
+            if (active.contains(pairKey(userRole.getUserId(), userRole.getRoleId()))) {
+                toRemove.add(userRole);
+            }
+        }
+        for (List<UserRole> chunk : chunks(toRemove, BATCH_WRITE_SIZE)) {
+            baseMapper.removeBatch(chunk);
+        }
+        publishUserRoleChange(toRemove);
+        return toRemove.size();
+    }
+
+    @Override
+    public Page<User> getUsersByRole(Long roleId, boolean includeInherited, long current, long size) {
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        if (!snapshot.containsRole(roleId)) {
+            throw BusinessException.roleNotFound();
+        }
+        long[] userIds = includeInherited
+                ? userRoleIndex.getUserIdsByRole(snapshot, roleId)
+                : userRoleIndex.getUserIdsByRoles(new long[]{roleId});
+        return page(userIds, current, size);
+    }
+
+    @Override
+    public Page<User> getUsersByPermission(Long permissionId, long current, long size) {
+        RbacSnapshot snapshot = rbacSnapshotManager.getSnapshot();
+        if (snapshot.getPermission(permissionId) == null) {
+            throw BusinessException.permissionNotFound();
+        }
+        return page(userRoleIndex.getUserIdsByPermission(snapshot, permissionId), current, size);
+    }
+
+    /**
+     * 从升序用户ID中截取一页并加载用户信息，不返回密码
+     */
+    private Page<User> page(long[] userIds, long current, long size) {
+        Page<User> page = new Page<>(current, size, userIds.length);
+        // 先按总页数判断是否越界，页码很大时(current - 1) * size会溢出
+        long pages = (userIds.length + size - 1) / size;
+        if (current - 1 >= pages) {
+            return page;
+        }
+        int offset = (int) ((current - 1) * size);
+        List<Long> pageIds = Arrays.stream(userIds, offset, (int) Math.min(offset + size, userIds.length))
+                .boxed()
+                .toList();
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userMapper.selectBatchIds(pageIds)) {
+            user.setPassword(null);
+            users.put(user.getId(), user);
+        }
+        List<User> records = new ArrayList<>(pageIds.size());
+        for (Long userId : pageIds) {
+            User user = users.get(userId);
+            if (user != null) {
+                records.add(user);
+            }
+        }
+        page.setRecords(records);
+        return page;
+    }
+
+    /**
+     * 只插入或恢复当前不存在的有效关系，返回实际新增的关系数
+     */
+    private int applyAssign(List<UserRole> pairs) {
+        Set<String> active = lockAndGetActivePairs(pairs);
+        List<UserRole> toAssign = new ArrayList<>();
+        for (UserRole userRole : pairs) {
+            if (!active.contains(pairKey(userRole.getUserId(), userRole.getRoleId()))) {
+                toAssign.add(userRole);
+            }
+        }
+        for (List<UserRole> chunk : chunks(toAssign, BATCH_WRITE_SIZE)) {
+            baseMapper.upsertBatch(chunk);
+        }
+        publishUserRoleChange(toAssign);
+        return toAssign.size();
+    }
+
+    /**
+     * 按用户ID升序锁定涉及的用户行以串行化同一用户的并发修改，返回这些关系中当前有效的部分
+     */
+    private Set<String> lockAndGetActivePairs(List<UserRole> pairs) {
+        Set<Long> userIdSet = new TreeSet<>();
+        Set<Long> roleIdSet = new LinkedHashSet<>();
+        for (UserRole userRole : pairs) {
+            userIdSet.add(userRole.getUserId());
+            roleIdSet.add(userRole.getRoleId());
+        }
+        List<Long> userIds = new ArrayList<>(userIdSet);
+        List<Long> roleIds = new ArrayList<>(roleIdSet);
+        for (List<Long> chunk : chunks(userIds, BATCH_QUERY_SIZE)) {
+            QueryWrapper<User> userQuery = new QueryWrapper<>();
+            userQuery.select("id").in("id", chunk).orderByAsc("id").last("FOR UPDATE");
+            userMapper.selectList(userQuery);
+        }
+        Set<String> active = new HashSet<>();
+        for (List<Long> userChunk : chunks(userIds, BATCH_QUERY_SIZE)) {
+            for (List<Long> roleChunk : chunks(roleIds, BATCH_QUERY_SIZE)) {
+                QueryWrapper<UserRole> queryWrapper = new QueryWrapper<>();
+                queryWrapper.select("user_id", "role_id").in("user_id", userChunk).in("role_id", roleChunk);
+                for (UserRole userRole : list(queryWrapper)) {
+                    active.add(pairKey(userRole.getUserId(), userRole.getRoleId()));
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * 按(userId, roleId)去重
+     */
+    private static List<UserRole> distinct(Collection<UserRole> userRoles) {
+        Map<String, UserRole> distinct = new LinkedHashMap<>();
+        for (UserRole userRole : userRoles) {
+            distinct.putIfAbsent(pairKey(userRole.getUserId(), userRole.getRoleId()), userRole);
+        }
+        return new ArrayList<>(distinct.values());
+    }
+
+    private static String pairKey(Long userId, Long roleId) {
+        return userId + ":" + roleId;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += size) {
+            chunks.add(items.subList(from, Math.min(from + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private void publishUserRoleChange(List<UserRole> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (UserRole userRole : changed) {
+            userIds.add(userRole.getUserId());
+        }
+        rbacVersionService.publishChange(RbacChangeType.USER_ROLE, userIds);
     }
-}
\ No newline at end of file
+}
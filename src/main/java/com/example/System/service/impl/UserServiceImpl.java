@@ -10,14 +10,20 @@ import com.example.System.entity.User;
 import com.example.System.exception.AuthException;
 import com.example.System.exception.BusinessException;
 import com.example.System.mapper.UserMapper;
-import com.example.System.service.PermissionService;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.UserGrants;
+import com.example.System.security.TokenClaims;
+import com.example.System.service.RbacVersionService;
+import com.example.System.service.UserGrantsService;
 import com.example.System.service.UserService;
 import com.example.System.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +33,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private JwtUtil jwtUtil;
     
     @Autowired
-    private PermissionService permissionService;
+    private UserGrantsService userGrantsService;
+    
+    @Autowired
+    private RbacSnapshotManager rbacSnapshotManager;
+    
+    @Autowired
+    private RbacVersionService rbacVersionService;
 
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
@@ -42,14 +54,23 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw AuthException.passwordError();
         }
         
-        // 获取用户权限列表
-        List<Permission> permissions = permissionService.getPermissionsByUserId(user.getId());
-        String permissionCodes = permissions.stream()
+        // 先读取RBAC版本号再加载角色权限，期间若有变更，令牌版本号即为旧值，会回退到数据库校验
+        long rbacVersion = rbacVersionService.getCurrentVersion();
+        
+        // 获取用户角色和权限位图
+        UserGrants grants = userGrantsService.getUserGrants(user.getId());
+        String permissionCodes = rbacSnapshotManager.getSnapshot().getPermissions(grants.getPermissionBits()).stream()
                 .map(Permission::getPermissionCode)
                 .collect(Collectors.joining(","));
         
-        // 生成JWT token（包含权限信息）
-        String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole(), permissionCodes);
+        // 生成JWT token（包含角色位图、权限位图和RBAC版本号，供无状态鉴权使用）
+        // 角色和权限以位图形式写入令牌，避免管理员令牌因权限代码过多而膨胀
+        Map<String, Object> authClaims = new HashMap<>();
+        authClaims.put(TokenClaims.ROLE_BITS, PermissionBits.encode(grants.getRoleBits()));
+        authClaims.put(TokenClaims.PERMISSION_BITS, PermissionBits.encode(grants.getPermissionBits()));
+        authClaims.put(TokenClaims.RBAC_VERSION, rbacVersion);
+        authClaims.put(TokenClaims.TOKEN_EPOCH, user.getTokenEpoch() == null ? 0L : user.getTokenEpoch());
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole(), authClaims);
         
         // 返回登录响应（包含权限信息）
         return LoginResponse.build(token, user.getId(), user.getUsername(), 
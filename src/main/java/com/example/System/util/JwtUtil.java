@@ -1,8 +1,12 @@
 package com.example.System.util;
 
+import com.example.System.security.TokenClaims;
+import com.example.System.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,6 +14,7 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -20,8 +25,23 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    /**
+     * 签名密钥和解析器都是线程安全的，只在启动时构建一次
+     */
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     /**
@@ -29,8 +49,8 @@ public class JwtUtil {
      */
     public String generateToken(String username, Long userId, String role) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("role", role);
+        claims.put(TokenClaims.USER_ID, userId);
+        claims.put(TokenClaims.ROLE, role);
         return createToken(claims, username);
     }
     
@@ -39,18 +59,30 @@ public class JwtUtil {
      */
     public String generateToken(String username, Long userId, String role, String permissions) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("role", role);
-        claims.put("permissions", permissions);
+        claims.put(TokenClaims.USER_ID, userId);
+        claims.put(TokenClaims.ROLE, role);
+        claims.put(TokenClaims.PERMISSIONS, permissions);
         return createToken(claims, username);
     }
 
     /**
-     * 创建token
+     * 生成包含授权声明的JWT token
+     * authClaims中的声明名称见TokenClaims
+     */
+    public String generateToken(String username, Long userId, String role, Map<String, Object> authClaims) {
+        Map<String, Object> claims = new HashMap<>(authClaims);
+        claims.put(TokenClaims.USER_ID, userId);
+        claims.put(TokenClaims.ROLE, role);
+        return createToken(claims, username);
+    }
+
+    /**
+     * 创建token，每个令牌带有唯一的jti，用于单独吊销
      */
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
@@ -58,12 +90,20 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * 解析并验签token，返回已验签令牌
+     * 签名无效或已过期时抛出JwtException
+     */
+    public VerifiedToken verify(String token) {
+        return new VerifiedToken(getAllClaimsFromToken(token));
+    }
+
     /**
      * 验证token
      */
     public Boolean validateToken(String token, String username) {
-        final String tokenUsername = getUsernameFromToken(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        final VerifiedToken verifiedToken = verify(token);
+        return (verifiedToken.getUsername().equals(username) && !verifiedToken.isExpired());
     }
 
     /**
@@ -78,7 +118,7 @@ public class JwtUtil {
      */
     public Long getUserIdFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return claims.get(TokenClaims.USER_ID, Long.class);
     }
 
     /**
@@ -86,7 +126,7 @@ public class JwtUtil {
      */
     public String getRoleFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return claims.get(TokenClaims.ROLE, String.class);
     }
     
     /**
@@ -94,7 +134,7 @@ public class JwtUtil {
      */
     public String getPermissionsFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("permissions", String.class);
+        return claims.get(TokenClaims.PERMISSIONS, String.class);
     }
 
     /**
@@ -116,18 +156,6 @@ public class JwtUtil {
      * 从token中获取所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * 检查token是否过期
-     */
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
@@ -21,8 +21,10 @@ CREATE TABLE IF NOT EXISTS "user" (
     "create_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     "update_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     "deleted" INTEGER DEFAULT 0,
+    "token_epoch" BIGINT DEFAULT 0,
     CONSTRAINT uk_username UNIQUE ("username")
 );
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS "token_epoch" BIGINT DEFAULT 0;
 
 -- 为user表创建自动更新触发器
 DROP TRIGGER IF EXISTS update_user_modtime ON "user";
@@ -34,11 +36,15 @@ CREATE TABLE IF NOT EXISTS role (
     role_name VARCHAR(50) NOT NULL,
     role_code VARCHAR(50) NOT NULL UNIQUE,
     description VARCHAR(255),
+    parent_id BIGINT DEFAULT 0,
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     deleted INTEGER DEFAULT 0
 );
 
+-- 旧版本角色表补充父角色列
+ALTER TABLE role ADD COLUMN IF NOT EXISTS parent_id BIGINT DEFAULT 0;
+
 -- 创建权限表（如果不存在）
 CREATE TABLE IF NOT EXISTS permission (
     id BIGSERIAL PRIMARY KEY,
@@ -46,12 +52,14 @@ CREATE TABLE IF NOT EXISTS permission (
     permission_code VARCHAR(100) NOT NULL UNIQUE,
     resource_type VARCHAR(50),
     resource_url VARCHAR(255),
+    request_method VARCHAR(10),
     parent_id BIGINT DEFAULT 0,
     description VARCHAR(255),
     create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     update_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     deleted INTEGER DEFAULT 0
 );
+ALTER TABLE permission ADD COLUMN IF NOT EXISTS request_method VARCHAR(10);
 
 -- 创建角色权限关系表（如果不存在）
 CREATE TABLE IF NOT EXISTS role_permission (
@@ -75,6 +83,26 @@ CREATE TABLE IF NOT EXISTS user_role (
     UNIQUE(user_id, role_id)
 );
 
+-- 创建RBAC变更日志表（如果不存在，自增ID即RBAC版本号）
+CREATE TABLE IF NOT EXISTS rbac_change_log (
+    id BIGSERIAL PRIMARY KEY,
+    change_type VARCHAR(32) NOT NULL,
+    target_ids TEXT,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_rbac_change_log_create_time ON rbac_change_log(create_time);
+
+-- 创建令牌吊销表（如果不存在）：jti不为空时吊销单个令牌，为空时表示用户的令牌纪元推进到token_epoch
+CREATE TABLE IF NOT EXISTS token_revocation (
+    id BIGSERIAL PRIMARY KEY,
+    jti VARCHAR(64),
+    user_id BIGINT NOT NULL,
+    token_epoch BIGINT,
+    expire_time TIMESTAMP NOT NULL,
+    create_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_token_revocation_expire_time ON token_revocation(expire_time);
+
 -- 为需要自动更新update_time的表创建触发器
 DROP TRIGGER IF EXISTS update_role_modtime ON role;
 CREATE TRIGGER update_role_modtime BEFORE UPDATE ON role FOR EACH ROW EXECUTE FUNCTION update_modified_column();
@@ -6,6 +6,7 @@ CREATE TABLE IF NOT EXISTS `role` (
   `role_name` varchar(50) NOT NULL COMMENT '角色名称',
   `role_code` varchar(50) NOT NULL COMMENT '角色代码',
   `description` varchar(255) DEFAULT NULL COMMENT '角色描述',
+  `parent_id` bigint DEFAULT '0' COMMENT '父角色ID',
   `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   `deleted` tinyint DEFAULT '0' COMMENT '是否删除：0-未删除，1-已删除',
@@ -20,6 +21,7 @@ CREATE TABLE IF NOT EXISTS `permission` (
   `permission_code` varchar(100) NOT NULL COMMENT '权限代码',
   `resource_type` varchar(50) DEFAULT NULL COMMENT '资源类型',
   `resource_url` varchar(255) DEFAULT NULL COMMENT '资源URL',
+  `request_method` varchar(10) DEFAULT NULL COMMENT '请求方法，为空表示不限',
   `parent_id` bigint DEFAULT '0' COMMENT '父级ID',
   `description` varchar(255) DEFAULT NULL COMMENT '权限描述',
   `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
@@ -53,6 +55,16 @@ CREATE TABLE IF NOT EXISTS `user_role` (
   UNIQUE KEY `uk_user_role` (`user_id`,`role_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户角色关系表';
 
+-- RBAC变更日志表（自增ID即RBAC版本号，各节点据此同步缓存）
+CREATE TABLE IF NOT EXISTS `rbac_change_log` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID（RBAC版本号）',
+  `change_type` varchar(32) NOT NULL COMMENT '变更类型',
+  `target_ids` text COMMENT '受影响的ID（逗号分隔）',
+  `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='RBAC变更日志表';
+
 -- 插入默认角色
 INSERT INTO `role` (`role_name`, `role_code`, `description`) VALUES 
 ('超级管理员', 'admin', '系统超级管理员，拥有所有权限'),
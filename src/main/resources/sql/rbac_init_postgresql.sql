@@ -6,6 +6,7 @@ CREATE TABLE IF NOT EXISTS "role" (
   "role_name" VARCHAR(50) NOT NULL,
   "role_code" VARCHAR(50) NOT NULL,
   "description" VARCHAR(255),
+  "parent_id" BIGINT DEFAULT 0,
   "create_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   "update_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   "deleted" SMALLINT DEFAULT 0
@@ -21,6 +22,7 @@ CREATE TABLE IF NOT EXISTS "permission" (
   "permission_code" VARCHAR(100) NOT NULL,
   "resource_type" VARCHAR(50),
   "resource_url" VARCHAR(255),
+  "request_method" VARCHAR(10),
   "parent_id" BIGINT DEFAULT 0,
   "description" VARCHAR(255),
   "create_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -57,6 +59,15 @@ CREATE TABLE IF NOT EXISTS "user_role" (
 -- 创建唯一索引
 CREATE UNIQUE INDEX IF NOT EXISTS "uk_user_role" ON "user_role" ("user_id", "role_id");
 
+-- RBAC变更日志表（自增ID即RBAC版本号，各节点据此同步缓存）
+CREATE TABLE IF NOT EXISTS "rbac_change_log" (
+  "id" BIGSERIAL PRIMARY KEY,
+  "change_type" VARCHAR(32) NOT NULL,
+  "target_ids" TEXT,
+  "create_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS "idx_rbac_change_log_create_time" ON "rbac_change_log" ("create_time");
+
 -- 插入默认角色（使用ON CONFLICT避免重复插入）
 INSERT INTO "role" ("role_name", "role_code", "description") VALUES 
 ('超级管理员', 'admin', '系统超级管理员，拥有所有权限'),
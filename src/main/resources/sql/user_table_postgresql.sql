@@ -11,6 +11,7 @@ CREATE TABLE IF NOT EXISTS "user" (
     "create_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     "update_time" TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '更新时间',
     "deleted" INTEGER DEFAULT 0 COMMENT '是否删除：0-未删除，1-已删除',
+    "token_epoch" BIGINT DEFAULT 0 COMMENT '令牌纪元，签发时写入令牌，推进后之前签发的令牌全部失效',
     CONSTRAINT "uk_username" UNIQUE ("username")
 );
 
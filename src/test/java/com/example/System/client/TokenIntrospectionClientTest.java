@@ -0,0 +1,97 @@
+package com.example.System.client;
+
+import com.example.System.dto.TokenIntrospection;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 令牌内省客户端测试，使用JDK内置HTTP服务器模拟认证服务
+ */
+class TokenIntrospectionClientTest {
+
+    private HttpServer server;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile String lastAuthorization;
+
+    private TokenIntrospectionClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/auth/introspect", exchange -> {
+            requests.incrementAndGet();
+            lastAuthorization = exchange.getRequestHeaders().getFirst("Authorization");
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String data;
+            if (body.contains("good")) {
+                data = "{\"active\":true,\"userId\":1,\"username\":\"admin\",\"roles\":[\"admin\"],"
+                        + "\"permissions\":[\"user:view\"],\"expiresAt\":" + (System.currentTimeMillis() + 3600000) + "}";
+            } else if (body.contains("expiring")) {
+                data = "{\"active\":true,\"userId\":2,\"username\":\"bob\",\"roles\":[],\"permissions\":[],"
+                        + "\"expiresAt\":" + (System.currentTimeMillis() - 1) + "}";
+            } else {
+                data = "{\"active\":false}";
+            }
+            byte[] response = ("{\"code\":200,\"message\":\"操作成功\",\"data\":" + data
+                    + ",\"timestamp\":\"2026-01-01T00:00:00\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+        client = new TokenIntrospectionClient("http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                () -> "service-token", Duration.ofMinutes(1), Duration.ofMinutes(1), 100, Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCachesResults() {
+        TokenIntrospection introspection = client.introspect("good");
+        assertTrue(introspection.getActive());
+        assertEquals("admin", introspection.getUsername());
+        assertTrue(client.hasPermission("good", "user:view"));
+        assertTrue(client.hasRole("good", "admin"));
+        assertFalse(client.hasPermission("good", "user:delete"));
+        assertEquals(1, requests.get());
+        assertEquals("Bearer service-token", lastAuthorization);
+
+        assertFalse(client.introspect("bad").getActive());
+        assertFalse(client.introspect("bad").getActive());
+        assertEquals(2, requests.get());
+
+        client.invalidate("good");
+        client.introspect("good");
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void testDoesNotCacheBeyondTokenExpiry() {
+        client.introspect("expiring");
+        client.introspect("expiring");
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testFailsWhenRejected() {
+        server.removeContext("/auth/introspect");
+        assertThrows(IllegalStateException.class, () -> client.introspect("good"));
+    }
+}
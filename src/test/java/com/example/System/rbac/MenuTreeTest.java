@@ -0,0 +1,77 @@
+package com.example.System.rbac;
+
+import com.example.System.dto.MenuNode;
+import com.example.System.entity.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 权限菜单树测试
+ */
+class MenuTreeTest {
+
+    private final MenuTree tree = MenuTree.build(1L, List.of(
+            permission(1L, 0L),
+            permission(2L, 1L),
+            permission(3L, 1L),
+            permission(4L, 3L),
+            permission(5L, 0L),
+            permission(6L, 99L),
+            permission(7L, 8L),
+            permission(8L, 7L),
+            permission(9L, 8L)));
+
+    @Test
+    void testFullTreeKeepsIdOrder() {
+        long[] all = PermissionBits.of(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+        List<MenuNode> roots = tree.filter(all);
+
+        assertEquals(9, tree.size());
+        assertEquals(List.of(1L, 5L, 6L, 7L), ids(roots));
+        assertEquals(List.of(2L, 3L), ids(roots.get(0).getChildren()));
+        assertEquals(List.of(4L), ids(roots.get(0).getChildren().get(1).getChildren()));
+        // 成环的7、8从7断开，9挂在8下
+        assertEquals(List.of(8L), ids(roots.get(3).getChildren()));
+        assertEquals(List.of(9L), ids(roots.get(3).getChildren().get(0).getChildren()));
+    }
+
+    @Test
+    void testFilterKeepsAncestors() {
+        List<MenuNode> roots = tree.filter(PermissionBits.of(List.of(4L, 5L)));
+
+        assertEquals(List.of(1L, 5L), ids(roots));
+        MenuNode menu = roots.get(0);
+        assertFalse(menu.getGranted());
+        assertEquals(List.of(3L), ids(menu.getChildren()));
+        assertEquals(List.of(4L), ids(menu.getChildren().get(0).getChildren()));
+        assertTrue(menu.getChildren().get(0).getChildren().get(0).getGranted());
+    }
+
+    @Test
+    void testEtag() {
+        long[] bits = PermissionBits.of(List.of(1L, 2L));
+        MenuTree rebuilt = MenuTree.build(2L, List.of(permission(1L, 0L), permission(2L, 1L), permission(3L, 1L),
+                permission(4L, 3L), permission(5L, 0L), permission(6L, 99L), permission(7L, 8L),
+                permission(8L, 7L), permission(9L, 8L)));
+
+        assertEquals(tree.etag(bits), rebuilt.etag(bits));
+        assertEquals(tree.etag(bits), tree.etag(new long[]{bits[0], 0L}));
+        assertNotEquals(tree.etag(bits), tree.etag(PermissionBits.of(List.of(1L))));
+    }
+
+    private static List<Long> ids(List<MenuNode> nodes) {
+        return nodes.stream().map(MenuNode::getId).collect(Collectors.toList());
+    }
+
+    private static Permission permission(Long id, Long parentId) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode("p" + id);
+        permission.setParentId(parentId);
+        return permission;
+    }
+}
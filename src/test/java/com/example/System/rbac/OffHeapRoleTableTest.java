@@ -0,0 +1,63 @@
+package com.example.System.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 堆外用户角色表测试
+ */
+class OffHeapRoleTableTest {
+
+    @Test
+    void testPutGetAndResize() {
+        OffHeapRoleTable table = new OffHeapRoleTable(4);
+        for (long userId = 0; userId < 10000; userId++) {
+            table.put(userId, userId % 3 == 0 ? new long[]{userId % 7} : new long[]{1L, 2L, userId + 10});
+        }
+
+        assertEquals(10000, table.size());
+        assertTrue(table.capacity() >= 10000 / 0.75);
+        for (long userId = 0; userId < 10000; userId++) {
+            long[] expected = userId % 3 == 0 ? new long[]{userId % 7} : new long[]{1L, 2L, userId + 10};
+            assertArrayEquals(expected, table.get(userId), "userId=" + userId);
+        }
+        assertNull(table.get(10000L));
+        assertEquals(3334 + 6666 * 3, table.relations());
+    }
+
+    @Test
+    void testRemoveKeepsProbeChains() {
+        OffHeapRoleTable table = new OffHeapRoleTable(100);
+        for (long userId = 1; userId <= 75; userId++) {
+            table.put(userId, new long[]{userId});
+        }
+        for (long userId = 1; userId <= 75; userId += 2) {
+            table.put(userId, new long[0]);
+        }
+
+        assertEquals(37, table.size());
+        for (long userId = 1; userId <= 75; userId++) {
+            if (userId % 2 == 0) {
+                assertArrayEquals(new long[]{userId}, table.get(userId));
+            } else {
+                assertNull(table.get(userId));
+            }
+        }
+    }
+
+    @Test
+    void testUpdateCompactsArena() {
+        OffHeapRoleTable table = new OffHeapRoleTable(1000);
+        for (int round = 0; round < 600; round++) {
+            for (long userId = 0; userId < 1000; userId++) {
+                table.put(userId, new long[]{round, round + 1L});
+            }
+        }
+
+        assertEquals(1000, table.size());
+        assertEquals(2000, table.relations());
+        assertArrayEquals(new long[]{599L, 600L}, table.get(42L));
+        assertTrue(table.arenaGarbageBytes() * 2 <= table.arenaBytes());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.System.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 权限位图编码与位运算测试
+ */
+class PermissionBitsTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        long[] bits = PermissionBits.of(List.of(1L, 5L, 64L, 130L));
+
+        long[] decoded = PermissionBits.decode(PermissionBits.encode(bits));
+
+        assertArrayEquals(bits, decoded);
+        assertTrue(PermissionBits.test(decoded, 64L));
+        assertFalse(PermissionBits.test(decoded, 2L));
+        assertEquals(4, PermissionBits.cardinality(decoded));
+    }
+
+    @Test
+    void testAnyAndAll() {
+        long[] granted = PermissionBits.of(List.of(1L, 2L, 3L));
+
+        assertTrue(PermissionBits.containsAny(granted, PermissionBits.of(List.of(3L, 200L))));
+        assertFalse(PermissionBits.containsAny(granted, PermissionBits.of(List.of(200L))));
+        assertTrue(PermissionBits.containsAll(granted, PermissionBits.of(List.of(1L, 3L))));
+        assertFalse(PermissionBits.containsAll(granted, PermissionBits.of(List.of(1L, 200L))));
+    }
+
+    @Test
+    void testEmptyBitmap() {
+        assertArrayEquals(PermissionBits.EMPTY, PermissionBits.decode(PermissionBits.encode(PermissionBits.EMPTY)));
+        assertFalse(PermissionBits.containsAny(PermissionBits.EMPTY, PermissionBits.of(List.of(1L))));
+    }
+
+    @Test
+    void testToIds() {
+        assertArrayEquals(new long[]{0L, 63L, 64L, 200L}, PermissionBits.toIds(PermissionBits.of(List.of(200L, 64L, 0L, 63L))));
+        assertEquals(0, PermissionBits.toIds(PermissionBits.EMPTY).length);
+    }
+}
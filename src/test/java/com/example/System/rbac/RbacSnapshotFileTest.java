@@ -0,0 +1,92 @@
+package com.example.System.rbac;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RBAC快照文件测试
+ */
+class RbacSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteAndOpen() throws IOException {
+        Path path = directory.resolve("rbac-snapshot.bin");
+        Role admin = role(1L, "admin", null);
+        admin.setCreateTime(LocalDateTime.of(2024, 1, 2, 3, 4, 5));
+        Role manager = role(2L, "manager", 1L);
+        Permission view = permission(1L, "user:view");
+        view.setResourceUrl("/user/list");
+        RbacSnapshotFile.write(path, 42L, List.of(admin, manager), List.of(view, permission(70L, "user:*")),
+                List.of(rolePermission(1L, 70L), rolePermission(2L, 1L)),
+                handler -> {
+                    handler.handle(3L, new long[]{2L});
+                    handler.handle(5L, new long[]{1L, 2L});
+                    handler.handle(9L, new long[]{1L});
+                });
+
+        RbacSnapshotFile file = RbacSnapshotFile.open(path);
+        assertEquals(42L, file.getChangeLogVersion());
+        assertEquals(3, file.getUserCount());
+        assertEquals(4, file.getRelationCount());
+        assertEquals(Files.size(path), file.getFileBytes());
+        assertEquals("manager", file.getRoles().get(1).getRoleCode());
+        assertEquals(1L, file.getRoles().get(1).getParentId());
+        assertNull(file.getRoles().get(0).getParentId());
+        assertEquals(admin.getCreateTime(), file.getRoles().get(0).getCreateTime());
+        assertEquals("/user/list", file.getPermissions().get(0).getResourceUrl());
+        assertArrayEquals(new long[]{1L, 2L}, file.getRoleIds(5L));
+        assertArrayEquals(new long[]{1L}, file.getRoleIds(9L));
+        assertArrayEquals(new long[0], file.getRoleIds(4L));
+
+        RbacSnapshot snapshot = new RbacSnapshot(1L, file.getRoles(), file.getPermissions(), file.getRolePermissions());
+        assertTrue(PermissionBits.test(snapshot.getRolePermissionBits(2L), 70L));
+        assertTrue(PermissionBits.test(snapshot.getRolePermissionBits(1L), 1L));
+    }
+
+    @Test
+    void testRejectsCorruptedFile() throws IOException {
+        Path path = directory.resolve("rbac-snapshot.bin");
+        RbacSnapshotFile.write(path, 1L, List.of(role(1L, "admin", null)), List.of(), List.of(), handler -> { });
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> RbacSnapshotFile.open(path));
+        assertThrows(IOException.class, () -> RbacSnapshotFile.open(directory.resolve("missing.bin")));
+    }
+
+    private static Role role(Long id, String code, Long parentId) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleCode(code);
+        role.setParentId(parentId);
+        return role;
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode(code);
+        return permission;
+    }
+
+    private static RolePermission rolePermission(Long roleId, Long permissionId) {
+        RolePermission rolePermission = new RolePermission().setRoleId(roleId);
+        rolePermission.setPermissionId(permissionId);
+        return rolePermission;
+    }
+}
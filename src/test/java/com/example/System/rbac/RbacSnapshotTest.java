@@ -0,0 +1,161 @@
+package com.example.System.rbac;
+
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.entity.RolePermission;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RBAC快照测试（不依赖Spring Boot上下文）
+ */
+class RbacSnapshotTest {
+
+    private final RbacSnapshot snapshot = new RbacSnapshot(7L,
+            List.of(role(3L, "user"), role(1L, "admin")),
+            List.of(permission(2L, "user:create"), permission(1L, "user:view"), permission(70L, "role:view")),
+            List.of(rolePermission(1L, 1L), rolePermission(1L, 2L), rolePermission(1L, 70L),
+                    rolePermission(3L, 1L), rolePermission(3L, 99L), rolePermission(9L, 2L)));
+
+    @Test
+    void testRolePermissionBits() {
+        assertTrue(PermissionBits.test(snapshot.getRolePermissionBits(3L), 1L));
+        assertFalse(PermissionBits.test(snapshot.getRolePermissionBits(3L), 2L));
+        // 不存在的权限和角色被忽略
+        assertEquals(1, PermissionBits.cardinality(snapshot.getRolePermissionBits(3L)));
+        assertEquals(0, snapshot.getRolePermissionBits(9L).length);
+    }
+
+    @Test
+    void testPermissionsOfRoles() {
+        long[] bits = snapshot.permissionBitsOfRoles(new long[]{1L, 3L});
+        List<String> codes = snapshot.getPermissions(bits).stream()
+                .map(Permission::getPermissionCode)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("user:view", "user:create", "role:view"), codes);
+    }
+
+    @Test
+    void testUserGrants() {
+        long[] roleIds = snapshot.existingRoleIds(List.of(3L, 9L, 3L));
+        UserGrants grants = UserGrants.of(5L, roleIds, snapshot);
+
+        assertArrayEquals(new long[]{3L}, grants.getRoleIds());
+        assertArrayEquals(PermissionBits.of(List.of(3L)), grants.getRoleBits());
+        assertArrayEquals(PermissionBits.of(List.of(1L)), grants.getPermissionBits());
+        assertEquals(7L, grants.getSnapshotVersion());
+        assertEquals("user", snapshot.getRoles(grants.getRoleIds()).get(0).getRoleCode());
+    }
+
+    @Test
+    void testUserGrantsRebind() {
+        UserGrants grants = UserGrants.of(5L, new long[]{1L, 3L}, snapshot);
+        RbacSnapshot updated = new RbacSnapshot(8L,
+                List.of(role(3L, "user")),
+                List.of(permission(1L, "user:view"), permission(2L, "user:create")),
+                List.of(rolePermission(3L, 1L), rolePermission(3L, 2L)));
+
+        UserGrants rebound = grants.rebind(updated);
+
+        assertTrue(grants.hasAnyRole(List.of(1L)));
+        assertFalse(rebound.hasAnyRole(List.of(1L)));
+        assertEquals(8L, rebound.getSnapshotVersion());
+        assertArrayEquals(PermissionBits.of(List.of(1L, 2L)), rebound.getPermissionBits());
+    }
+
+    @Test
+    void testUserGrantsFromJoinedRows() {
+        RoleGrantRow user = new RoleGrantRow();
+        user.setRoleId(3L);
+        user.setPermissionIds("1,70");
+        RoleGrantRow auditor = new RoleGrantRow();
+        auditor.setRoleId(4L);
+        auditor.setPermissionIds("[2, null]");
+
+        UserGrants grants = UserGrants.of(5L, List.of(auditor, user));
+
+        assertArrayEquals(new long[]{3L, 4L}, grants.getRoleIds());
+        assertArrayEquals(PermissionBits.of(List.of(1L, 2L, 70L)), grants.getPermissionBits());
+        assertEquals(UserGrants.NO_SNAPSHOT, grants.getSnapshotVersion());
+    }
+
+    @Test
+    void testWildcardAndParentImplication() {
+        Permission system = permission(10L, "system");
+        Permission userMenu = permission(11L, "user:manage");
+        userMenu.setParentId(10L);
+        Permission userView = permission(12L, "user:view");
+        userView.setParentId(11L);
+        RbacSnapshot implied = new RbacSnapshot(1L,
+                List.of(role(1L, "admin"), role(2L, "auditor"), role(3L, "manager")),
+                List.of(system, userMenu, userView, permission(13L, "role:view"), permission(14L, "user:role:assign"),
+                        permission(20L, "user:*"), permission(21L, "*:view")),
+                List.of(rolePermission(1L, 20L), rolePermission(2L, 21L), rolePermission(3L, 10L)));
+
+        // 末尾通配符匹配其后任意层级
+        assertArrayEquals(PermissionBits.of(List.of(11L, 12L, 14L, 20L)), implied.getRolePermissionBits(1L));
+        assertArrayEquals(PermissionBits.of(List.of(12L, 13L, 21L)), implied.getRolePermissionBits(2L));
+        // 父权限蕴含全部子孙权限
+        assertArrayEquals(PermissionBits.of(List.of(10L, 11L, 12L)), implied.getRolePermissionBits(3L));
+        assertArrayEquals(PermissionBits.of(List.of(10L)), implied.getRoleDirectPermissionBits(3L));
+    }
+
+    @Test
+    void testParentCycleTerminates() {
+        Permission a = permission(1L, "a");
+        a.setParentId(2L);
+        Permission b = permission(2L, "b");
+        b.setParentId(1L);
+        RbacSnapshot cyclic = new RbacSnapshot(1L, List.of(role(1L, "admin")), List.of(a, b),
+                List.of(rolePermission(1L, 1L)));
+
+        assertArrayEquals(PermissionBits.of(List.of(1L, 2L)), cyclic.getRolePermissionBits(1L));
+    }
+
+    @Test
+    void testRoleInheritanceClosure() {
+        Role admin = role(1L, "admin");
+        admin.setParentId(2L);
+        Role manager = role(2L, "manager");
+        manager.setParentId(3L);
+        RbacSnapshot inherited = new RbacSnapshot(1L, List.of(admin, manager, role(3L, "user")),
+                List.of(permission(1L, "user:view"), permission(2L, "user:update"), permission(3L, "user:delete")),
+                List.of(rolePermission(1L, 3L), rolePermission(2L, 2L), rolePermission(3L, 1L)));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, inherited.getInheritedRoleIds(1L));
+        assertArrayEquals(PermissionBits.of(List.of(1L, 2L, 3L)), inherited.getRolePermissionBits(1L));
+        assertArrayEquals(PermissionBits.of(List.of(1L, 2L)), inherited.getRolePermissionBits(2L));
+        assertTrue(inherited.wouldCreateInheritanceCycle(3L, 1L));
+        assertFalse(inherited.wouldCreateInheritanceCycle(1L, 3L));
+
+        UserGrants grants = UserGrants.of(5L, new long[]{2L}, inherited);
+        assertArrayEquals(new long[]{2L}, grants.getDirectRoleIds());
+        assertArrayEquals(new long[]{2L, 3L}, grants.getRoleIds());
+        assertTrue(grants.hasAnyRole(List.of(3L)));
+    }
+
+    private static Role role(Long id, String code) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleCode(code);
+        return role;
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode(code);
+        return permission;
+    }
+
+    private static RolePermission rolePermission(Long roleId, Long permissionId) {
+        RolePermission rolePermission = new RolePermission().setRoleId(roleId);
+        rolePermission.setPermissionId(permissionId);
+        return rolePermission;
+    }
+}
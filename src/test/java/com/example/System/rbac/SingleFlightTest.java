@@ -0,0 +1,130 @@
+package com.example.System.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单飞加载测试
+ */
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentLoadsAreCoalesced() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> singleFlight.load("grants:1", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "value";
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> singleFlight.load("grants:1", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // 等待其余线程进入等待状态后再放行首个加载
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((long) singleFlight.getCacheStats().get("coalescedCount") < threads - 1
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1L, singleFlight.getCacheStats().get("loadCount"));
+        assertEquals((long) threads - 1, singleFlight.getCacheStats().get("coalescedCount"));
+        assertEquals(0, singleFlight.getCacheStats().get("inFlight"));
+    }
+
+    @Test
+    void testFailureIsNotRemembered() {
+        SingleFlight singleFlight = new SingleFlight();
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("roles:1", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", singleFlight.load("roles:1", () -> "ok"));
+        assertEquals(1L, singleFlight.getCacheStats().get("loadFailureCount"));
+    }
+
+    @Test
+    void testLoadAfterForgetDoesNotJoinStaleLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> singleFlight.load("grants:1", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "stale";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 失效后开始的加载重新查询，而不是等待失效前开始的加载
+            singleFlight.forget("grants:1");
+            assertEquals("fresh", singleFlight.load("grants:1", () -> "fresh"));
+            release.countDown();
+            assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0L, singleFlight.getCacheStats().get("coalescedCount"));
+        assertEquals(0, singleFlight.getCacheStats().get("inFlight"));
+    }
+
+    @Test
+    void testForgetByPrefix() throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (String key : List.of("grants:1", "roles:1")) {
+                executor.submit(() -> singleFlight.load(key, () -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    return key;
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            singleFlight.forgetByPrefix("grants:");
+            assertEquals(1, singleFlight.getCacheStats().get("inFlight"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, singleFlight.getCacheStats().get("inFlight"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
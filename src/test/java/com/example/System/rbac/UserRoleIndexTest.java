@@ -0,0 +1,58 @@
+package com.example.System.rbac;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户角色反向索引测试
+ */
+class UserRoleIndexTest {
+
+    @Test
+    void testUnion() {
+        assertArrayEquals(new long[0], UserRoleIndex.union(List.of()));
+        assertArrayEquals(new long[]{1L, 2L, 3L, 5L, 8L, 9L}, UserRoleIndex.union(List.of(
+                new long[]{1L, 3L, 5L},
+                new long[]{2L, 3L, 8L},
+                new long[]{5L, 9L})));
+    }
+
+    @Test
+    void testApplyUserRolesMergesChangesPerRole() {
+        long[] untouched = {7L, 8L};
+        Map<Long, long[]> index = new HashMap<>();
+        index.put(1L, new long[]{1L, 3L, 5L});
+        index.put(2L, new long[]{3L});
+        index.put(3L, untouched);
+
+        // 用户3移除角色1、2并新增角色4；用户4新增角色1；用户5不变；用户6没有任何角色
+        Map<Long, long[]> roleIdsByUser = new HashMap<>();
+        roleIdsByUser.put(3L, new long[]{4L});
+        roleIdsByUser.put(4L, new long[]{1L});
+        roleIdsByUser.put(5L, new long[]{1L});
+        roleIdsByUser.put(6L, new long[0]);
+
+        Map<Long, long[]> result = UserRoleIndex.applyUserRoles(index, roleIdsByUser);
+        assertArrayEquals(new long[]{1L, 4L, 5L}, result.get(1L));
+        assertFalse(result.containsKey(2L), "没有用户的角色应被移除");
+        assertSame(untouched, result.get(3L), "未受影响的角色数组应原样复用");
+        assertArrayEquals(new long[]{3L}, result.get(4L));
+        assertArrayEquals(new long[]{1L, 3L, 5L}, index.get(1L), "原映射不应被修改");
+    }
+
+    @Test
+    void testApplyUserRolesWithManyUsersOnOneRole() {
+        Map<Long, long[]> index = new HashMap<>();
+        index.put(1L, new long[]{2L, 4L, 6L, 8L});
+        Map<Long, long[]> roleIdsByUser = new HashMap<>();
+        for (long userId = 1; userId <= 8; userId++) {
+            roleIdsByUser.put(userId, userId % 2 == 1 ? new long[]{1L} : new long[0]);
+        }
+        assertArrayEquals(new long[]{1L, 3L, 5L, 7L}, UserRoleIndex.applyUserRoles(index, roleIdsByUser).get(1L));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.System.security;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.dto.AuthorizationCheck;
+import com.example.System.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量鉴权二进制编码测试
+ */
+class AuthorizationCheckCodecTest {
+
+    @Test
+    void testRoundTrip() {
+        AuthorizationCheck byUser = new AuthorizationCheck();
+        byUser.setUserId(42L);
+        byUser.setPermissions(List.of("user:view", "角色:查看"));
+        byUser.setLogical(RequirePermission.Logical.ALL);
+        AuthorizationCheck byToken = new AuthorizationCheck();
+        byToken.setToken("a.b.c");
+        byToken.setRoles(List.of("admin"));
+
+        List<AuthorizationCheck> decoded = AuthorizationCheckCodec.decode(
+                AuthorizationCheckCodec.encode(List.of(byUser, byToken)), 10);
+
+        assertEquals(List.of(byUser, byToken), decoded);
+        byte[] decisions = {1, 0, 2};
+        assertArrayEquals(decisions, AuthorizationCheckCodec.decodeResults(AuthorizationCheckCodec.encodeResults(decisions)));
+    }
+
+    @Test
+    void testRejectsMalformedBody() {
+        AuthorizationCheck check = new AuthorizationCheck();
+        check.setUserId(1L);
+        byte[] body = AuthorizationCheckCodec.encode(List.of(check, check));
+
+        assertThrows(BusinessException.class, () -> AuthorizationCheckCodec.decode(body, 1));
+        assertThrows(BusinessException.class, () -> AuthorizationCheckCodec.decode(Arrays.copyOf(body, body.length - 1), 10));
+        assertThrows(BusinessException.class, () -> AuthorizationCheckCodec.decode(Arrays.copyOf(body, body.length + 1), 10));
+    }
+}
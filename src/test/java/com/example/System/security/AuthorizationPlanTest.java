@@ -0,0 +1,68 @@
+package com.example.System.security;
+
+import com.example.System.annotation.RequirePermission;
+import com.example.System.entity.Permission;
+import com.example.System.entity.Role;
+import com.example.System.rbac.PermissionBits;
+import com.example.System.rbac.RbacSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编译鉴权计划测试（不依赖Spring Boot上下文）
+ */
+class AuthorizationPlanTest {
+
+    private final RbacSnapshot snapshot = new RbacSnapshot(1L,
+            List.of(role(1L, "admin"), role(3L, "user")),
+            List.of(permission(1L, "user:view"), permission(2L, "user:create"), permission(70L, "role:view")));
+
+    @Test
+    void testRolesMatchAny() {
+        AuthorizationPlan plan = AuthorizationPlan.compile(new String[]{"admin", "unknown"}, new String[0],
+                RequirePermission.Logical.ANY, snapshot);
+
+        assertTrue(plan.requiresRoles());
+        assertFalse(plan.requiresPermissions());
+        assertTrue(plan.matchesRoles(PermissionBits.of(List.of(1L))));
+        assertFalse(plan.matchesRoles(PermissionBits.of(List.of(3L))));
+    }
+
+    @Test
+    void testPermissionsAnyAndAll() {
+        AuthorizationPlan any = AuthorizationPlan.compile(new String[0], new String[]{"user:view", "role:view"},
+                RequirePermission.Logical.ANY, snapshot);
+        AuthorizationPlan all = AuthorizationPlan.compile(new String[0], new String[]{"user:view", "role:view"},
+                RequirePermission.Logical.ALL, snapshot);
+        long[] granted = PermissionBits.of(List.of(70L));
+
+        assertTrue(any.matchesPermissions(granted));
+        assertFalse(all.matchesPermissions(granted));
+        assertTrue(all.matchesPermissions(PermissionBits.of(List.of(1L, 70L))));
+    }
+
+    @Test
+    void testUnknownPermissionFailsAll() {
+        AuthorizationPlan plan = AuthorizationPlan.compile(new String[0], new String[]{"user:view", "missing"},
+                RequirePermission.Logical.ALL, snapshot);
+
+        assertFalse(plan.matchesPermissions(PermissionBits.of(List.of(1L, 2L, 70L))));
+    }
+
+    private static Role role(Long id, String code) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleCode(code);
+        return role;
+    }
+
+    private static Permission permission(Long id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode(code);
+        return permission;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.System.security;
+
+import com.example.System.entity.Permission;
+import com.example.System.rbac.PermissionBits;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * URL权限路径树测试
+ */
+class UrlPermissionTrieTest {
+
+    private final UrlPermissionTrie trie = UrlPermissionTrie.compile(1L, List.of(
+            permission(1L, "/user/list", null),
+            permission(2L, "/user/create", "POST"),
+            permission(3L, "/user/update/{id}", "PUT"),
+            permission(5L, "/role/list", null),
+            permission(6L, "/role/**", null),
+            permission(7L, "/role/**", null),
+            permission(8L, "/role/*/permissions", "GET"),
+            permission(9L, "/bad/*.json", null)));
+
+    @Test
+    void testLiteralAndMethod() {
+        assertArrayEquals(bits(1L), trie.match("GET", "/user/list"));
+        assertArrayEquals(bits(2L), trie.match("post", "/user/create/"));
+        assertNull(trie.match("GET", "/user/create"));
+        assertNull(trie.match("GET", "/auth/login"));
+    }
+
+    @Test
+    void testMostSpecificRuleWins() {
+        assertArrayEquals(bits(3L), trie.match("PUT", "/user/update/42"));
+        assertArrayEquals(bits(5L), trie.match("GET", "/role/list"));
+        assertArrayEquals(bits(8L), trie.match("GET", "/role/3/permissions"));
+        // 同一模式的多个权限合并为任一即可
+        assertArrayEquals(bits(6L, 7L), trie.match("PUT", "/role/3/permissions"));
+        assertArrayEquals(bits(6L, 7L), trie.match("DELETE", "/role/delete/3"));
+        assertArrayEquals(bits(6L, 7L), trie.match("GET", "/role"));
+    }
+
+    @Test
+    void testHeadFallsBackToGetRules() {
+        assertArrayEquals(bits(8L), trie.match("HEAD", "/role/3/permissions"));
+        assertArrayEquals(bits(6L, 7L), trie.match("HEAD", "/role"));
+        assertNull(trie.match("HEAD", "/user/create"));
+    }
+
+    @Test
+    void testEncodedAndPathParameterPathsMatch() {
+        assertArrayEquals(bits(1L), trie.match("GET", path("/user/list;x=1")));
+        assertArrayEquals(bits(1L), trie.match("GET", path("/%75ser/list")));
+        assertArrayEquals(bits(1L), trie.match("GET", path("/user;jsessionid=abc/list")));
+        assertArrayEquals(bits(3L), trie.match("PUT", path("/user/update/4%32")));
+    }
+
+    @Test
+    void testUnsupportedPatternIgnored() {
+        assertEquals(7, trie.getRuleCount());
+        assertNull(trie.match("GET", "/bad/a.json"));
+    }
+
+    /**
+     * 按拦截器的方式从请求中取出匹配用的路径
+     */
+    private static String path(String requestUri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+        request.setContextPath("");
+        return UrlAuthorizationRegistry.lookupPath(request);
+    }
+
+    private static long[] bits(Long... ids) {
+        return PermissionBits.of(List.of(ids));
+    }
+
+    private static Permission permission(Long id, String url, String method) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setPermissionCode("p" + id);
+        permission.setResourceUrl(url);
+        permission.setRequestMethod(method);
+        return permission;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.System.security;
+
+import com.example.System.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 已验签令牌缓存测试（不依赖Spring Boot上下文）
+ */
+class VerifiedTokenCacheTest {
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private JwtUtil jwtUtil;
+
+    private VerifiedTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil() {
+            @Override
+            public VerifiedToken verify(String token) {
+                verifications.incrementAndGet();
+                return super.verify(token);
+            }
+        };
+        ReflectionTestUtils.setField(jwtUtil, "secret", "unit-test-secret-key-with-enough-length-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        jwtUtil.init();
+
+        tokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(tokenCache, "enabled", true);
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(tokenCache, "maxTtlMillis", 600000L);
+        tokenCache.init();
+    }
+
+    @Test
+    void testRepeatedTokenIsVerifiedOnce() {
+        String token = jwtUtil.generateToken("admin", 1L, "ADMIN");
+
+        VerifiedToken first = tokenCache.verify(token);
+        VerifiedToken second = tokenCache.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1L, tokenCache.getCacheStats().get("hitCount"));
+
+        tokenCache.invalidate(token);
+        tokenCache.verify(token);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testKeyedByDigestNotRawToken() throws Exception {
+        String token = jwtUtil.generateToken("admin", 1L, "ADMIN");
+        tokenCache.verify(token);
+
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        String digest = Base64.getEncoder().encodeToString(hash);
+        assertTrue(cache().asMap().containsKey(digest));
+        assertFalse(cache().asMap().containsKey(token));
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        String token = jwtUtil.generateToken("admin", 1L, "ADMIN");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -60000L);
+        String expired = jwtUtil.generateToken("admin", 1L, "ADMIN");
+
+        assertThrows(JwtException.class, () -> tokenCache.verify(tampered));
+        assertThrows(JwtException.class, () -> tokenCache.verify(tampered));
+        assertThrows(ExpiredJwtException.class, () -> tokenCache.verify(expired));
+        assertThrows(ExpiredJwtException.class, () -> tokenCache.verify(expired));
+
+        assertEquals(4, verifications.get());
+        assertEquals(0L, cache().estimatedSize());
+    }
+
+    @Test
+    void testEntryLifetimeClampedToTokenExpiry() {
+        // 令牌1小时后过期，最大存活时间10分钟：取最大存活时间
+        VerifiedToken longLived = jwtUtil.verify(jwtUtil.generateToken("admin", 1L, "ADMIN"));
+        assertEquals(TimeUnit.MINUTES.toNanos(10), ttlNanos(longLived));
+
+        // 令牌30秒后过期：存活时间不超过令牌剩余有效期
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 30000L);
+        VerifiedToken shortLived = jwtUtil.verify(jwtUtil.generateToken("admin", 1L, "ADMIN"));
+        long ttl = ttlNanos(shortLived);
+        assertTrue(ttl <= TimeUnit.SECONDS.toNanos(30), "ttl=" + ttl);
+        assertTrue(ttl > TimeUnit.SECONDS.toNanos(25), "ttl=" + ttl);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, VerifiedToken> cache() {
+        return (Cache<String, VerifiedToken>) ReflectionTestUtils.getField(tokenCache, "cache");
+    }
+
+    private long ttlNanos(VerifiedToken token) {
+        Long ttl = ReflectionTestUtils.invokeMethod(tokenCache, "ttlNanos", token);
+        return ttl;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.System.service.impl;
+
+import com.example.System.entity.RbacChangeLog;
+import com.example.System.entity.Role;
+import com.example.System.mapper.RbacChangeLogMapper;
+import com.example.System.rbac.OffHeapUserRoleStore;
+import com.example.System.rbac.RbacChangeType;
+import com.example.System.rbac.RbacChangedEvent;
+import com.example.System.rbac.RbacSnapshot;
+import com.example.System.rbac.RbacSnapshotFile;
+import com.example.System.rbac.RbacSnapshotFileStore;
+import com.example.System.rbac.RbacSnapshotManager;
+import com.example.System.rbac.SingleFlight;
+import com.example.System.service.UserRoleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户授权缓存测试：快照文件落后时，启动期间从文件读到的旧授权需随重放的变更失效（不依赖Spring Boot上下文）
+ */
+class UserGrantsServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGrantsLoadedFromStaleFileAreInvalidatedByReplay() throws Exception {
+        List<Role> roles = List.of(role(1L, "viewer"), role(2L, "editor"));
+        RbacSnapshot snapshot = new RbacSnapshot(1L, roles, List.of());
+
+        // 快照文件写于版本10，其中用户5拥有角色1；之后全部用户的角色被重新分配，用户5改为角色2，随后角色权限也有变更
+        Path path = directory.resolve("rbac-snapshot.bin");
+        RbacSnapshotFile.write(path, 10L, roles, List.of(), List.of(), handler -> handler.handle(5L, new long[]{1L}));
+        List<RbacChangeLog> changes = List.of(
+                change(11L, RbacChangeType.USER_ROLE, ""),
+                change(12L, RbacChangeType.ROLE_PERMISSION, "2"));
+
+        RbacSnapshotFileStore fileStore = new RbacSnapshotFileStore();
+        ReflectionTestUtils.setField(fileStore, "file", RbacSnapshotFile.open(path));
+        ReflectionTestUtils.setField(fileStore, "userDataAvailable", true);
+        ReflectionTestUtils.setField(fileStore, "rbacChangeLogMapper", changeLogMapper(changes));
+
+        UserGrantsServiceImpl grantsService = new UserGrantsServiceImpl();
+        ReflectionTestUtils.setField(grantsService, "userRoleService", userRoleService(List.of(2L)));
+        ReflectionTestUtils.setField(grantsService, "rbacSnapshotManager", new RbacSnapshotManager() {
+            @Override
+            public RbacSnapshot getSnapshot() {
+                return snapshot;
+            }
+        });
+        ReflectionTestUtils.setField(grantsService, "singleFlight", new SingleFlight());
+        ReflectionTestUtils.setField(grantsService, "offHeapUserRoleStore", new OffHeapUserRoleStore());
+        ReflectionTestUtils.setField(grantsService, "rbacSnapshotFileStore", fileStore);
+        ReflectionTestUtils.setField(grantsService, "snapshotEnabled", true);
+        ReflectionTestUtils.setField(grantsService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(grantsService, "maxSize", 100L);
+        ReflectionTestUtils.setField(grantsService, "expireAfterWriteMillis", 3600000L);
+        ReflectionTestUtils.setField(grantsService, "refreshAfterWriteMillis", 3600000L);
+        grantsService.init();
+
+        // 与Spring中的顺序一致：文件存储先处理，授权缓存后失效
+        List<RbacChangedEvent> events = new ArrayList<>();
+        ApplicationEventPublisher publisher = event -> {
+            RbacChangedEvent changed = (RbacChangedEvent) event;
+            events.add(changed);
+            fileStore.onRbacChanged(changed);
+            grantsService.onRbacChanged(changed);
+        };
+        ReflectionTestUtils.setField(fileStore, "eventPublisher", publisher);
+
+        assertArrayEquals(new long[]{1L}, grantsService.getUserGrants(5L).getRoleIds());
+
+        fileStore.verify();
+
+        // 全部用户的变更之后的角色权限变更同样需要重新发布
+        assertEquals(2, events.size());
+        assertEquals(RbacChangeType.ROLE, events.get(0).getChangeType());
+        assertEquals(RbacChangeType.USER_ROLE, events.get(1).getChangeType());
+        assertTrue(events.get(1).getTargetIds().isEmpty());
+        assertNull(fileStore.getRoleIds(5L));
+        assertArrayEquals(new long[]{2L}, grantsService.getUserGrants(5L).getRoleIds());
+    }
+
+    private static RbacChangeLogMapper changeLogMapper(List<RbacChangeLog> changes) {
+        long minId = changes.get(0).getId() - 10;
+        long maxId = changes.get(changes.size() - 1).getId();
+        return (RbacChangeLogMapper) Proxy.newProxyInstance(RbacChangeLogMapper.class.getClassLoader(),
+                new Class<?>[]{RbacChangeLogMapper.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "selectMinId" -> minId;
+                    case "selectMaxId" -> maxId;
+                    case "selectList" -> changes;
+                    case "toString" -> "RbacChangeLogMapper";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static UserRoleService userRoleService(List<Long> roleIds) {
+        return (UserRoleService) Proxy.newProxyInstance(UserRoleService.class.getClassLoader(),
+                new Class<?>[]{UserRoleService.class}, (proxy, method, args) -> {
+                    if ("getRoleIdsByUserId".equals(method.getName())) {
+                        return roleIds;
+                    }
+                    if ("toString".equals(method.getName())) {
+                        return "UserRoleService";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static RbacChangeLog change(Long id, RbacChangeType changeType, String targetIds) {
+        RbacChangeLog change = new RbacChangeLog();
+        change.setId(id);
+        change.setChangeType(changeType.name());
+        change.setTargetIds(targetIds);
+        return change;
+    }
+
+    private static Role role(Long id, String code) {
+        Role role = new Role();
+        role.setId(id);
+        role.setRoleCode(code);
+        return role;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.System.util;
+
+import com.example.System.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtUtil验签逻辑测试（不依赖Spring Boot上下文）
+ */
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "unit-test-secret-key-with-enough-length-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void testVerifyExposesClaims() {
+        String token = jwtUtil.generateToken("admin", 1L, "ADMIN", "user:view");
+
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+
+        assertEquals("admin", verifiedToken.getUsername());
+        assertEquals(1L, verifiedToken.getUserId());
+        assertEquals("ADMIN", verifiedToken.getRole());
+        assertFalse(verifiedToken.isExpired());
+        assertTrue(jwtUtil.validateToken(token, "admin"));
+    }
+
+    @Test
+    void testVerifyRejectsTamperedToken() {
+        String token = jwtUtil.generateToken("admin", 1L, "ADMIN");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+}